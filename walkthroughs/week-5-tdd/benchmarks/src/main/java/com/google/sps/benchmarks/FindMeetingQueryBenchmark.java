@@ -0,0 +1,137 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.benchmarks;
+
+import com.google.sps.AvailabilityCache;
+import com.google.sps.BitsetAvailability;
+import com.google.sps.Event;
+import com.google.sps.EventIndex;
+import com.google.sps.EventTable;
+import com.google.sps.FindMeetingQuery;
+import com.google.sps.MeetingRequest;
+import com.google.sps.TimeRange;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of meeting queries on synthetic calendars. Run with {@code -prof gc} to
+ * also get the allocation rate of each query.
+ *
+ * <p>{@code query} runs {@code FindMeetingQuery.query} with each engine, and so does
+ * {@code indexedQuery} on the events the index returns. The other benchmarks run the precomputed
+ * structures on the same calendars and requests: {@code tableQuery} always sweeps the table's
+ * columns, and {@code cachedQuery} and {@code bitsetQuery} do not use {@code FindMeetingQuery} at
+ * all. They ignore {@code engine}, so restrict it with {@code -p engine=SWEEP} when running them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FindMeetingQueryBenchmark {
+  // Queries cycle through this many requests, so that the JIT can't specialize on one of them.
+  private static final int REQUESTS = 64;
+  private static final int MEETING_DURATION = 30;
+  private static final long SEED = 20200101L;
+
+  @Param({"1000", "10000"})
+  public int eventCount;
+
+  @Param({"1", "4"})
+  public int attendeesPerEvent;
+
+  @Param({"2", "20"})
+  public int requestSize;
+
+  @Param({"0.0", "0.5"})
+  public double optionalRatio;
+
+  @Param({"500"})
+  public int people;
+
+  @Param({"ITERATIVE", "SWEEP", "PRIMITIVE"})
+  public FindMeetingQuery.Engine engine;
+
+  private List<Event> events;
+  private MeetingRequest[] requests;
+  private FindMeetingQuery query;
+  private EventIndex index;
+  private AvailabilityCache cache;
+  private BitsetAvailability bitset;
+  private EventTable table;
+  private int next;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    Random random = new Random(SEED);
+    List<String> names = SyntheticCalendar.people(people);
+    events = SyntheticCalendar.events(random, names, eventCount, attendeesPerEvent);
+    requests = new MeetingRequest[REQUESTS];
+    for (int i = 0; i < REQUESTS; i++) {
+      requests[i] = SyntheticCalendar.request(
+          random, names, requestSize, optionalRatio, MEETING_DURATION);
+    }
+    query = new FindMeetingQuery(engine);
+    index = new EventIndex(events);
+    cache = new AvailabilityCache(events);
+    bitset = new BitsetAvailability(events);
+    table = new EventTable(events);
+  }
+
+  private MeetingRequest nextRequest() {
+    next = (next + 1) % REQUESTS;
+    return requests[next];
+  }
+
+  @Benchmark
+  public Collection<TimeRange> query() {
+    return query.query(events, nextRequest());
+  }
+
+  @Benchmark
+  public Collection<TimeRange> indexedQuery() {
+    return query.query(index, nextRequest());
+  }
+
+  @Benchmark
+  public Collection<TimeRange> cachedQuery() {
+    return cache.query(nextRequest());
+  }
+
+  @Benchmark
+  public Collection<TimeRange> bitsetQuery() {
+    return bitset.query(nextRequest());
+  }
+
+  @Benchmark
+  public Collection<TimeRange> tableQuery() {
+    return query.query(table, nextRequest());
+  }
+}
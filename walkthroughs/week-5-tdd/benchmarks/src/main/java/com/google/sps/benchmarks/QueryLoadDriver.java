@@ -0,0 +1,213 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.benchmarks;
+
+import com.google.gson.Gson;
+import com.google.sps.CalendarGenerator;
+import com.google.sps.EventSources;
+import com.google.sps.MeetingRequest;
+import com.google.sps.QueryMetrics;
+import com.google.sps.servlets.QueryServlet;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+
+/**
+ * Load test of the {@code /query} endpoint. Serves {@code QueryServlet} from an embedded Jetty over
+ * a generated calendar, replays meeting requests at several concurrency levels and reports the
+ * throughput, the p50/p99 latency and the answer cache hit rate of each level.
+ *
+ * <p>The servlet's answer cache is off by default, so that the latencies are those of computing
+ * the answers. Run with {@code cacheAnswers=true} to measure the servlet as deployed, where the hit
+ * rate depends on how many of the {@code distinctRequests} fit in the cache.
+ *
+ * <p>Options are passed as {@code name=value} arguments, for example
+ * {@code java -cp target/benchmarks.jar com.google.sps.benchmarks.QueryLoadDriver employees=5000}.
+ * See {@code DEFAULTS} for the available options.
+ */
+public final class QueryLoadDriver {
+  private static final Map<String, String> DEFAULTS = new HashMap<>();
+
+  static {
+    DEFAULTS.put("seed", "1");
+    DEFAULTS.put("employees", "2000");
+    DEFAULTS.put("meetingsPerEmployee", "4");
+    DEFAULTS.put("recurringBlocks", "2");
+    DEFAULTS.put("requestSize", "8");
+    DEFAULTS.put("optionalRatio", "0.25");
+    DEFAULTS.put("duration", "30");
+    DEFAULTS.put("concurrency", "1,4,16,64");
+    DEFAULTS.put("requests", "5000");
+    DEFAULTS.put("warmup", "1000");
+    DEFAULTS.put("distinctRequests", "256");
+    DEFAULTS.put("cacheAnswers", "false");
+  }
+
+  private QueryLoadDriver() {
+    // Disallow instances.
+  }
+
+  public static void main(String[] args) throws Exception {
+    Map<String, String> options = new HashMap<>(DEFAULTS);
+    for (String arg : args) {
+      String[] option = arg.split("=", 2);
+      if (option.length != 2 || !DEFAULTS.containsKey(option[0])) {
+        throw new IllegalArgumentException("Unknown option " + arg + ", expected one of "
+            + DEFAULTS.keySet());
+      }
+      options.put(option[0], option[1]);
+    }
+
+    long seed = Long.parseLong(options.get("seed"));
+    CalendarGenerator generator = new CalendarGenerator(seed,
+        Integer.parseInt(options.get("employees")),
+        Double.parseDouble(options.get("meetingsPerEmployee")),
+        Integer.parseInt(options.get("recurringBlocks")));
+    EventSources.set(EventSources.fixed(generator.generate()));
+
+    List<String> bodies = requestBodies(new Random(seed), generator.getEmployees(),
+        Integer.parseInt(options.get("requestSize")),
+        Double.parseDouble(options.get("optionalRatio")),
+        Integer.parseInt(options.get("duration")),
+        Integer.parseInt(options.get("distinctRequests")));
+
+    Server server = new Server(0);
+    ServletContextHandler context = new ServletContextHandler();
+    context.addServlet(QueryServlet.class, "/query")
+        .setInitParameter("cacheAnswers", options.get("cacheAnswers"));
+    server.setHandler(context);
+    server.start();
+    try {
+      int port = ((ServerConnector) server.getConnectors()[0]).getLocalPort();
+      URL url = new URL("http://localhost:" + port + "/query");
+      System.out.printf("%d events, %d distinct requests%n",
+          EventSources.get().getEvents().size(), bodies.size());
+
+      run(url, bodies, 4, Integer.parseInt(options.get("warmup")));
+      System.out.printf("%12s %14s %10s %10s %10s%n",
+          "concurrency", "requests/s", "p50 ms", "p99 ms", "hit rate");
+      QueryMetrics metrics = QueryMetrics.getDefault();
+      int requests = Integer.parseInt(options.get("requests"));
+      for (String level : options.get("concurrency").split(",")) {
+        int concurrency = Integer.parseInt(level.trim());
+        long hits = metrics.getCacheHits();
+        long misses = metrics.getCacheMisses();
+        long start = System.nanoTime();
+        long[] latencies = run(url, bodies, concurrency, requests);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        hits = metrics.getCacheHits() - hits;
+        misses = metrics.getCacheMisses() - misses;
+        Arrays.sort(latencies);
+        System.out.printf("%12d %14.1f %10.3f %10.3f %9.1f%%%n", concurrency,
+            latencies.length / seconds, percentile(latencies, 0.50) / 1e6,
+            percentile(latencies, 0.99) / 1e6, 100.0 * hits / Math.max(1, hits + misses));
+      }
+    } finally {
+      server.stop();
+    }
+  }
+
+  private static List<String> requestBodies(Random random, List<String> employees, int size,
+      double optionalRatio, int duration, int count) {
+    Gson gson = new Gson();
+    List<String> bodies = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      MeetingRequest request =
+          SyntheticCalendar.request(random, employees, size, optionalRatio, duration);
+      bodies.add(gson.toJson(request));
+    }
+    return bodies;
+  }
+
+  /**
+   * Sends {@code requests} POSTs from {@code concurrency} threads and returns the latency of each
+   * one in nanoseconds.
+   */
+  private static long[] run(URL url, final List<String> bodies, int concurrency, int requests)
+      throws Exception {
+    final long[] latencies = new long[requests];
+    final AtomicInteger next = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+    try {
+      List<Future<Void>> workers = new ArrayList<>();
+      for (int i = 0; i < concurrency; i++) {
+        workers.add(executor.submit(new Callable<Void>() {
+          @Override
+          public Void call() throws IOException {
+            for (int request = next.getAndIncrement(); request < latencies.length;
+                request = next.getAndIncrement()) {
+              long start = System.nanoTime();
+              post(url, bodies.get(request % bodies.size()));
+              latencies[request] = System.nanoTime() - start;
+            }
+            return null;
+          }
+        }));
+      }
+      for (Future<Void> worker : workers) {
+        worker.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    return latencies;
+  }
+
+  private static void post(URL url, String body) throws IOException {
+    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+    connection.setRequestMethod("POST");
+    connection.setDoOutput(true);
+    try (OutputStream out = connection.getOutputStream()) {
+      out.write(body.getBytes(StandardCharsets.UTF_8));
+    }
+    if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+      throw new IOException("Query failed with status " + connection.getResponseCode());
+    }
+    // Read the whole answer so that the connection can be reused.
+    try (InputStream in = connection.getInputStream()) {
+      ByteArrayOutputStream ignored = new ByteArrayOutputStream();
+      byte[] buffer = new byte[4096];
+      for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+        ignored.write(buffer, 0, read);
+      }
+    }
+  }
+
+  private static long percentile(long[] sorted, double percentile) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    int index = (int) Math.ceil(percentile * sorted.length) - 1;
+    return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+  }
+}
@@ -0,0 +1,90 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.benchmarks;
+
+import com.google.sps.Event;
+import com.google.sps.MeetingRequest;
+import com.google.sps.TimeRange;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generates random calendars and meeting requests for the benchmarks. The same seed always gives
+ * the same data, so that runs of different engines can be compared.
+ */
+final class SyntheticCalendar {
+  // Events start on a quarter hour and last 15 minutes to 2 hours.
+  private static final int SLOT = 15;
+  private static final int MAX_SLOTS_PER_EVENT = 8;
+
+  private SyntheticCalendar() {
+    // Disallow instances.
+  }
+
+  /**
+   * Returns {@code count} distinct attendee names.
+   */
+  static List<String> people(int count) {
+    List<String> people = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      people.add("Person " + i);
+    }
+    return people;
+  }
+
+  /**
+   * Returns {@code count} events, each attended by {@code attendeesPerEvent} of {@code people}.
+   */
+  static List<Event> events(
+      Random random, List<String> people, int count, int attendeesPerEvent) {
+    List<Event> events = new ArrayList<>(count);
+    int slotsPerDay = TimeRange.WHOLE_DAY.duration() / SLOT;
+    for (int i = 0; i < count; i++) {
+      int start = random.nextInt(slotsPerDay) * SLOT;
+      int duration = (1 + random.nextInt(MAX_SLOTS_PER_EVENT)) * SLOT;
+      int end = Math.min(start + duration, TimeRange.WHOLE_DAY.end());
+      events.add(new Event("Event " + i, TimeRange.fromStartEnd(start, end, false),
+          pick(random, people, attendeesPerEvent)));
+    }
+    return events;
+  }
+
+  /**
+   * Returns a request for {@code size} of {@code people}, of which a share of
+   * {@code optionalRatio} are optional.
+   */
+  static MeetingRequest request(
+      Random random, List<String> people, int size, double optionalRatio, int duration) {
+    List<String> attendees = new ArrayList<>(pick(random, people, size));
+    int optional = (int) Math.round(size * optionalRatio);
+    MeetingRequest request =
+        new MeetingRequest(attendees.subList(0, attendees.size() - optional), duration);
+    for (String attendee : attendees.subList(attendees.size() - optional, attendees.size())) {
+      request.addOptionalAttendee(attendee);
+    }
+    return request;
+  }
+
+  private static Set<String> pick(Random random, List<String> people, int count) {
+    Set<String> picked = new HashSet<>();
+    while (picked.size() < Math.min(count, people.size())) {
+      picked.add(people.get(random.nextInt(people.size())));
+    }
+    return picked;
+  }
+}
@@ -0,0 +1,148 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns attendee names to dense {@code int} ids, starting at 0. Ids are never reused, so an id
+ * stays valid for the lifetime of the dictionary. Sets of attendees are represented as sorted
+ * {@code int[]}s without duplicates, which can be intersected with {@code intersects}.
+ */
+public final class AttendeeDictionary {
+  /** Value returned by {@code lookup} for names that were never interned. */
+  public static final int UNKNOWN = -1;
+
+  private static final AttendeeDictionary DEFAULT = new AttendeeDictionary();
+
+  private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+  private final List<String> names = new ArrayList<>();
+
+  /**
+   * Returns the dictionary shared by all events and meeting requests.
+   */
+  public static AttendeeDictionary getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * Returns the id of {@code name}, assigning the next free id if the name is new.
+   */
+  public int intern(String name) {
+    Integer id = ids.get(name);
+    if (id != null) {
+      return id;
+    }
+    synchronized (names) {
+      id = ids.get(name);
+      if (id == null) {
+        id = names.size();
+        names.add(name);
+        ids.put(name, id);
+      }
+      return id;
+    }
+  }
+
+  /**
+   * Returns the id of {@code name}, or {@code UNKNOWN} if it was never interned. Unlike
+   * {@code intern}, this never grows the dictionary.
+   */
+  public int lookup(String name) {
+    Integer id = ids.get(name);
+    return id == null ? UNKNOWN : id;
+  }
+
+  /**
+   * Returns the name with the given id.
+   */
+  public String getName(int id) {
+    synchronized (names) {
+      return names.get(id);
+    }
+  }
+
+  /**
+   * Returns the number of interned names.
+   */
+  public int size() {
+    synchronized (names) {
+      return names.size();
+    }
+  }
+
+  /**
+   * Interns all of {@code names} and returns their ids as a sorted array without duplicates.
+   */
+  public int[] intern(Collection<String> names) {
+    int[] result = new int[names.size()];
+    int count = 0;
+    for (String name : names) {
+      result[count++] = intern(name);
+    }
+    return sortedDistinct(result, count);
+  }
+
+  /**
+   * Returns the ids of the known names in {@code names} as a sorted array without duplicates. Names
+   * that were never interned are left out: they cannot attend any known event.
+   */
+  public int[] lookup(Collection<String> names) {
+    int[] result = new int[names.size()];
+    int count = 0;
+    for (String name : names) {
+      int id = lookup(name);
+      if (id != UNKNOWN) {
+        result[count++] = id;
+      }
+    }
+    return sortedDistinct(result, count);
+  }
+
+  /**
+   * Returns true if the two sorted id arrays have at least one id in common.
+   */
+  public static boolean intersects(int[] a, int[] b) {
+    int i = 0;
+    int j = 0;
+    while (i < a.length && j < b.length) {
+      if (a[i] == b[j]) {
+        return true;
+      }
+      if (a[i] < b[j]) {
+        i++;
+      } else {
+        j++;
+      }
+    }
+    return false;
+  }
+
+  private static int[] sortedDistinct(int[] ids, int count) {
+    Arrays.sort(ids, 0, count);
+    int distinct = 0;
+    for (int i = 0; i < count; i++) {
+      if (distinct == 0 || ids[distinct - 1] != ids[i]) {
+        ids[distinct++] = ids[i];
+      }
+    }
+    return distinct == ids.length ? ids : Arrays.copyOf(ids, distinct);
+  }
+}
@@ -0,0 +1,93 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Read-only set of attendee names stored as the sorted ids of an {@code AttendeeDictionary}. It
+ * takes a fraction of the memory of a {@code HashSet<String>} and still behaves like any other
+ * {@code Set}, including for {@code equals} and {@code hashCode}.
+ */
+final class AttendeeSet extends AbstractSet<String> {
+  private final AttendeeDictionary dictionary;
+  private final int[] ids;
+
+  /**
+   * Creates a set over {@code ids}, which must be sorted, without duplicates and never modified
+   * afterwards.
+   */
+  AttendeeSet(AttendeeDictionary dictionary, int[] ids) {
+    this.dictionary = dictionary;
+    this.ids = ids;
+  }
+
+  /**
+   * Returns the sorted ids of the attendees. The array must not be modified.
+   */
+  int[] ids() {
+    return ids;
+  }
+
+  @Override
+  public int size() {
+    return ids.length;
+  }
+
+  @Override
+  public boolean contains(Object other) {
+    if (!(other instanceof String)) {
+      return false;
+    }
+    int id = dictionary.lookup((String) other);
+    return id != AttendeeDictionary.UNKNOWN && Arrays.binarySearch(ids, id) >= 0;
+  }
+
+  @Override
+  public Iterator<String> iterator() {
+    return new Iterator<String>() {
+      private int next = 0;
+
+      @Override
+      public boolean hasNext() {
+        return next < ids.length;
+      }
+
+      @Override
+      public String next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return dictionary.getName(ids[next++]);
+      }
+    };
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (other instanceof AttendeeSet && ((AttendeeSet) other).dictionary == dictionary) {
+      return Arrays.equals(ids, ((AttendeeSet) other).ids);
+    }
+    return super.equals(other);
+  }
+
+  @Override
+  public int hashCode() {
+    return super.hashCode();
+  }
+}
@@ -0,0 +1,343 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the merged busy list of every attendee up to date as events are added and removed, so that
+ * a query only has to join the cached lists of the people it asks about. Adding or removing an
+ * event only rewrites the busy ranges it touches. This class is thread-safe.
+ *
+ * <p>Groups of people that are often asked about together, such as a team, can be registered. The
+ * merged busy list of the whole group is then kept up to date as well, and a query asking for
+ * everyone in a group starts from it instead of joining the lists of every member.
+ */
+public final class AvailabilityCache {
+  private final Map<String, AttendeeBusy> busyByAttendee = new HashMap<>();
+  private final Map<String, Group> groups = new HashMap<>();
+  private final Map<String, List<Group>> groupsByMember = new HashMap<>();
+
+  public AvailabilityCache() {}
+
+  /**
+   * Creates a cache holding {@code events}.
+   */
+  public AvailabilityCache(Collection<Event> events) {
+    for (Event event : events) {
+      addEvent(event);
+    }
+  }
+
+  /**
+   * Marks the attendees of {@code event} as busy during its time.
+   */
+  public synchronized void addEvent(Event event) {
+    for (String attendee : event.getAttendees()) {
+      AttendeeBusy busy = busyByAttendee.get(attendee);
+      if (busy == null) {
+        busy = new AttendeeBusy();
+        busyByAttendee.put(attendee, busy);
+      }
+      busy.add(event.getWhen());
+      for (Group group : groupsOf(attendee)) {
+        group.busy.add(event.getWhen());
+      }
+    }
+  }
+
+  /**
+   * Removes an event added with {@code addEvent}. The attendees stay busy during its time only if
+   * they have other events then.
+   *
+   * @return True if the event was known to the cache.
+   */
+  public synchronized boolean removeEvent(Event event) {
+    boolean removed = false;
+    for (String attendee : event.getAttendees()) {
+      AttendeeBusy busy = busyByAttendee.get(attendee);
+      if (busy != null && busy.remove(event.getWhen())) {
+        removed = true;
+        if (busy.isEmpty()) {
+          busyByAttendee.remove(attendee);
+        }
+        for (Group group : groupsOf(attendee)) {
+          group.busy.remove(event.getWhen());
+        }
+      }
+    }
+    return removed;
+  }
+
+  /**
+   * Returns the merged busy list of {@code attendee}, sorted by start.
+   */
+  public synchronized List<TimeRange> getBusy(String attendee) {
+    AttendeeBusy busy = busyByAttendee.get(attendee);
+    if (busy == null) {
+      return Collections.emptyList();
+    }
+    return Collections.unmodifiableList(new ArrayList<>(busy.merged));
+  }
+
+  /**
+   * Returns the merged busy list of all of {@code attendees}, sorted by start. If they include
+   * every member of a registered group, the largest such group's busy list is used for its
+   * members.
+   */
+  public synchronized List<TimeRange> getBusy(Collection<String> attendees) {
+    Group group = largestGroupIn(attendees);
+    List<TimeRange> busy =
+        group == null ? new ArrayList<TimeRange>() : new ArrayList<>(group.busy.merged);
+    for (String attendee : attendees) {
+      if (group != null && group.members.contains(attendee)) {
+        continue;
+      }
+      AttendeeBusy attendeeBusy = busyByAttendee.get(attendee);
+      if (attendeeBusy != null) {
+        busy = TimeRanges.union(busy, attendeeBusy.merged);
+      }
+    }
+    return busy;
+  }
+
+  /**
+   * Registers the group {@code name} made of {@code members}, replacing any group of that name,
+   * and computes its merged busy list.
+   */
+  public synchronized void registerGroup(String name, Collection<String> members) {
+    if (name == null) {
+      throw new IllegalArgumentException("name cannot be null");
+    }
+
+    if (members == null) {
+      throw new IllegalArgumentException("members cannot be null");
+    }
+
+    unregisterGroup(name);
+    Group group = new Group(members);
+    for (String member : group.members) {
+      List<Group> memberGroups = groupsByMember.get(member);
+      if (memberGroups == null) {
+        memberGroups = new ArrayList<>();
+        groupsByMember.put(member, memberGroups);
+      }
+      memberGroups.add(group);
+
+      // The group holds the ranges of every member, so that removing an event attended by several
+      // members takes it out as many times as it was put in.
+      AttendeeBusy busy = busyByAttendee.get(member);
+      if (busy != null) {
+        for (TimeRange range : busy.events) {
+          group.busy.add(range);
+        }
+      }
+    }
+    groups.put(name, group);
+  }
+
+  /**
+   * Unregisters the group {@code name}.
+   *
+   * @return True if there was such a group.
+   */
+  public synchronized boolean unregisterGroup(String name) {
+    Group group = groups.remove(name);
+    if (group == null) {
+      return false;
+    }
+    for (String member : group.members) {
+      List<Group> memberGroups = groupsByMember.get(member);
+      memberGroups.remove(group);
+      if (memberGroups.isEmpty()) {
+        groupsByMember.remove(member);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the merged busy list of the members of group {@code name}, sorted by start.
+   *
+   * @throws IllegalArgumentException if there is no such group.
+   */
+  public synchronized List<TimeRange> getGroupBusy(String name) {
+    Group group = groups.get(name);
+    if (group == null) {
+      throw new IllegalArgumentException("Unknown group " + name);
+    }
+    return Collections.unmodifiableList(new ArrayList<>(group.busy.merged));
+  }
+
+  private List<Group> groupsOf(String attendee) {
+    List<Group> memberGroups = groupsByMember.get(attendee);
+    return memberGroups == null ? Collections.<Group>emptyList() : memberGroups;
+  }
+
+  private Group largestGroupIn(Collection<String> attendees) {
+    Group largest = null;
+    for (Group group : groups.values()) {
+      // A group of one saves nothing over the busy list of its only member.
+      if (group.members.size() > 1 && attendees.containsAll(group.members)
+          && (largest == null || group.members.size() > largest.members.size())) {
+        largest = group;
+      }
+    }
+    return largest;
+  }
+
+  /**
+   * Returns the same slots as {@code FindMeetingQuery.query} over the events in the cache.
+   */
+  public Collection<TimeRange> query(MeetingRequest request) {
+    return query(request, new QueryStats());
+  }
+
+  /**
+   * Same as {@code query(MeetingRequest)}, also adding to {@code stats} the size of the merged busy
+   * lists searched and the number of slots returned. No event is looked at, so the event counts of
+   * {@code stats} are left unset.
+   */
+  public Collection<TimeRange> query(MeetingRequest request, QueryStats stats) {
+    if (stats == null) {
+      throw new IllegalArgumentException("stats cannot be null");
+    }
+
+    if (request.getDuration() > TimeRange.WHOLE_DAY.duration()) {
+      return new ArrayList<>();
+    }
+    List<TimeRange> requiredBusy;
+    List<TimeRange> optionalBusy;
+    synchronized (this) {
+      requiredBusy = getBusy(request.getAttendees());
+      optionalBusy = getBusy(request.getOptionalAttendees());
+    }
+    List<TimeRange> slots = FindMeetingQuery.limit(
+        FindMeetingQuery.slotsFor(requiredBusy, optionalBusy, request.getDuration(), stats),
+        request.getLimit());
+    stats.setSlotsReturned(slots.size());
+    return slots;
+  }
+
+  /**
+   * A registered group: its members and the busy times of all of them.
+   */
+  private static final class Group {
+    private final Set<String> members;
+    private final AttendeeBusy busy = new AttendeeBusy();
+
+    Group(Collection<String> members) {
+      this.members = new HashSet<>(members);
+    }
+  }
+
+  /**
+   * The times of the events of one attendee, sorted by start, and their merged busy list.
+   */
+  private static final class AttendeeBusy {
+    private final List<TimeRange> events = new ArrayList<>();
+    private final List<TimeRange> merged = new ArrayList<>();
+
+    boolean isEmpty() {
+      return events.isEmpty();
+    }
+
+    void add(TimeRange range) {
+      events.add(firstStartingAtOrAfter(events, range.start()), range);
+      if (range.duration() <= 0) {
+        return;
+      }
+
+      // Blocks [first, last] overlap or touch the new range and are replaced by a single block.
+      int first = firstEndingAtOrAfter(range.start());
+      int last = first;
+      int start = range.start();
+      int end = range.end();
+      while (last < merged.size() && merged.get(last).start() <= range.end()) {
+        start = Math.min(start, merged.get(last).start());
+        end = Math.max(end, merged.get(last).end());
+        last++;
+      }
+      merged.subList(first, last).clear();
+      merged.add(first, TimeRange.fromStartEnd(start, end, false));
+    }
+
+    boolean remove(TimeRange range) {
+      int from = firstStartingAtOrAfter(events, range.start());
+      int index = events.subList(from, events.size()).indexOf(range);
+      if (index < 0) {
+        return false;
+      }
+      events.remove(from + index);
+      if (range.duration() <= 0) {
+        return true;
+      }
+
+      // Only the block that contained the range can change. Rebuild it from the events starting
+      // inside it, which may now leave gaps.
+      int blockIndex = firstEndingAtOrAfter(range.end());
+      TimeRange block = merged.get(blockIndex);
+      List<TimeRange> inside = new ArrayList<>();
+      for (int i = firstStartingAtOrAfter(events, block.start());
+          i < events.size() && events.get(i).start() < block.end(); i++) {
+        inside.add(events.get(i));
+      }
+      merged.remove(blockIndex);
+      merged.addAll(blockIndex, TimeRanges.merge(inside));
+      return true;
+    }
+
+    /**
+     * Returns the index of the first merged block ending at or after {@code point}.
+     */
+    private int firstEndingAtOrAfter(int point) {
+      int low = 0;
+      int high = merged.size();
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+        if (merged.get(middle).end() < point) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+      return low;
+    }
+
+    /**
+     * Returns the index of the first range of {@code ranges} starting at or after {@code point}.
+     */
+    private static int firstStartingAtOrAfter(List<TimeRange> ranges, int point) {
+      int low = 0;
+      int high = ranges.size();
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+        if (ranges.get(middle).start() < point) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+      return low;
+    }
+  }
+}
@@ -0,0 +1,177 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Worker of the sharded availability service. It holds the events of the attendees of one shard
+ * and answers {@code POST /busy} with the merged busy lists of the people of a
+ * {@code MeetingRequest}, which a {@code ShardCoordinator} joins with the answers of the other
+ * shards. The request is the same JSON as the one of the {@code /query} servlet, and the answer is
+ * a {@code ShardBusy}.
+ */
+public final class AvailabilityWorker {
+  private final AvailabilityCache availability;
+  private HttpServer server;
+  private ExecutorService executor;
+
+  /**
+   * Creates a worker for {@code events}, usually the part of a calendar returned by
+   * {@code ShardCoordinator.partition} for one shard.
+   */
+  public AvailabilityWorker(Collection<Event> events) {
+    if (events == null) {
+      throw new IllegalArgumentException("events cannot be null");
+    }
+    this.availability = new AvailabilityCache(events);
+  }
+
+  /**
+   * Returns the busy lists of the required and of the optional attendees of {@code request}.
+   */
+  public ShardBusy getBusy(MeetingRequest request) {
+    return new ShardBusy(availability.getBusy(request.getAttendees()),
+        availability.getBusy(request.getOptionalAttendees()));
+  }
+
+  /**
+   * Starts serving on {@code port} of the loopback address, or on a free port if it is 0.
+   *
+   * @return The port the worker listens on.
+   */
+  public int start(int port) throws IOException {
+    return start(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+  }
+
+  /**
+   * Starts serving on {@code address}, for example the wildcard address so that a coordinator on
+   * another machine can reach the worker. A port of 0 picks a free port.
+   *
+   * @return The port the worker listens on.
+   */
+  public synchronized int start(InetSocketAddress address) throws IOException {
+    if (address == null) {
+      throw new IllegalArgumentException("address cannot be null");
+    }
+
+    if (server != null) {
+      throw new IllegalStateException("worker already started");
+    }
+    server = HttpServer.create(address, 0);
+    server.createContext("/busy", new BusyHandler());
+    executor = Executors.newCachedThreadPool();
+    server.setExecutor(executor);
+    server.start();
+    return server.getAddress().getPort();
+  }
+
+  /**
+   * Stops serving, if the worker was started.
+   */
+  public synchronized void stop() {
+    if (server != null) {
+      server.stop(0);
+      executor.shutdown();
+      server = null;
+    }
+  }
+
+  /**
+   * Runs a worker process for shard {@code shard} out of {@code shards}, listening on
+   * {@code address}, given as {@code port} for the loopback address or as {@code host:port}.
+   * Events are read from a {@code CalendarSnapshot} file if one is given, otherwise the sample
+   * events are used. Only the events of the shard are kept.
+   *
+   * <p>Usage: {@code AvailabilityWorker [host:]port shard shards [snapshot]}
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 3 || args.length > 4) {
+      System.err.println("Usage: AvailabilityWorker [host:]port shard shards [snapshot]");
+      System.exit(2);
+    }
+    InetSocketAddress address = parseAddress(args[0]);
+    int shard = Integer.parseInt(args[1]);
+    int shards = Integer.parseInt(args[2]);
+    // A snapshot decodes its events one at a time as they are read, so the events of the other
+    // shards are dropped as soon as they are looked at.
+    Collection<Event> events = args.length == 4
+        ? CalendarSnapshot.open(Paths.get(args[3])).getEvents()
+        : Arrays.asList(Events.events);
+
+    List<Event> shardEvents = ShardCoordinator.shard(events, shard, shards);
+    AvailabilityWorker worker = new AvailabilityWorker(shardEvents);
+    int boundPort = worker.start(address);
+    System.out.printf("Shard %d/%d serving %d events on port %d%n",
+        shard, shards, shardEvents.size(), boundPort);
+    System.out.flush();
+  }
+
+  private static InetSocketAddress parseAddress(String address) {
+    int colon = address.lastIndexOf(':');
+    if (colon < 0) {
+      return new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(address));
+    }
+    return new InetSocketAddress(
+        address.substring(0, colon), Integer.parseInt(address.substring(colon + 1)));
+  }
+
+  private final class BusyHandler implements HttpHandler {
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+      try {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+          exchange.sendResponseHeaders(405, -1);
+          return;
+        }
+        Gson gson = new Gson();
+        MeetingRequest request;
+        try (Reader reader =
+            new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+          request = gson.fromJson(reader, MeetingRequest.class);
+        }
+        if (request == null) {
+          exchange.sendResponseHeaders(400, -1);
+          return;
+        }
+
+        byte[] body = gson.toJson(getBusy(request)).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+          out.write(body);
+        }
+      } finally {
+        exchange.close();
+      }
+    }
+  }
+}
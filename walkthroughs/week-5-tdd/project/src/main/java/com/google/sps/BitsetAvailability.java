@@ -0,0 +1,154 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Answers meeting requests from one precomputed bitmask per attendee, where bit {@code i} is set
+ * when the attendee is busy during minute {@code i} of the day. A query ORs the masks of the people
+ * it is asking about and scans the result for runs of free minutes, so its cost depends on the
+ * number of attendees rather than on the number of events.
+ */
+public final class BitsetAvailability {
+  private static final int MINUTES_PER_DAY = TimeRange.WHOLE_DAY.duration();
+  private static final int WORDS = (MINUTES_PER_DAY + Long.SIZE - 1) / Long.SIZE;
+
+  private final Map<String, long[]> masks = new HashMap<>();
+
+  /**
+   * Creates the masks of every attendee of {@code events}.
+   *
+   * @param events The events people are busy with. Must be non-null.
+   */
+  public BitsetAvailability(Collection<Event> events) {
+    if (events == null) {
+      throw new IllegalArgumentException("events cannot be null");
+    }
+
+    for (Event event : events) {
+      TimeRange when = event.getWhen();
+      for (String attendee : event.getAttendees()) {
+        long[] mask = masks.get(attendee);
+        if (mask == null) {
+          mask = new long[WORDS];
+          masks.put(attendee, mask);
+        }
+        setBits(mask, when.start(), when.end());
+      }
+    }
+  }
+
+  /**
+   * Returns the slots of the day where the required and the optional attendees of {@code request}
+   * are all free. If there are no such slots, returns the slots where only the required attendees
+   * are free. This matches {@code FindMeetingQuery.query}.
+   */
+  public Collection<TimeRange> query(MeetingRequest request) {
+    if (request.getDuration() > MINUTES_PER_DAY) {
+      return new ArrayList<>();
+    }
+
+    long[] required = new long[WORDS];
+    or(required, request.getAttendees());
+    List<TimeRange> requiredSlots = freeSlots(required, request.getDuration());
+    if (request.getOptionalAttendees().isEmpty()) {
+      return FindMeetingQuery.limit(requiredSlots, request.getLimit());
+    }
+
+    long[] all = required.clone();
+    or(all, request.getOptionalAttendees());
+    List<TimeRange> optionalSlots = freeSlots(all, request.getDuration());
+    return FindMeetingQuery.limit(
+        optionalSlots.isEmpty() ? requiredSlots : optionalSlots, request.getLimit());
+  }
+
+  private void or(long[] target, Collection<String> attendees) {
+    for (String attendee : attendees) {
+      long[] mask = masks.get(attendee);
+      if (mask == null) {
+        continue;
+      }
+      for (int i = 0; i < WORDS; i++) {
+        target[i] |= mask[i];
+      }
+    }
+  }
+
+  /**
+   * Returns the runs of zero bits in {@code busy} that are at least {@code minDuration} long.
+   */
+  private static List<TimeRange> freeSlots(long[] busy, long minDuration) {
+    List<TimeRange> slots = new ArrayList<>();
+    int minute = 0;
+    while (minute < MINUTES_PER_DAY) {
+      int start = nextBit(busy, minute, false);
+      if (start >= MINUTES_PER_DAY) {
+        break;
+      }
+      int end = nextBit(busy, start, true);
+      if (end - start >= minDuration) {
+        slots.add(TimeRange.fromStartEnd(start, end, false));
+      }
+      minute = end;
+    }
+    return slots;
+  }
+
+  /**
+   * Returns the first minute at or after {@code from} whose bit equals {@code set}, or the end of
+   * the day if there is none.
+   */
+  private static int nextBit(long[] mask, int from, boolean set) {
+    int word = from / Long.SIZE;
+    long bits = (set ? mask[word] : ~mask[word]) & (-1L << (from % Long.SIZE));
+    while (bits == 0) {
+      word++;
+      if (word == WORDS) {
+        return MINUTES_PER_DAY;
+      }
+      bits = set ? mask[word] : ~mask[word];
+    }
+    return Math.min(word * Long.SIZE + Long.numberOfTrailingZeros(bits), MINUTES_PER_DAY);
+  }
+
+  /**
+   * Sets the bits of the minutes in {@code [start, end)}, clipped to the day.
+   */
+  private static void setBits(long[] mask, int start, int end) {
+    start = Math.max(start, 0);
+    end = Math.min(end, MINUTES_PER_DAY);
+    if (start >= end) {
+      return;
+    }
+    int firstWord = start / Long.SIZE;
+    int lastWord = (end - 1) / Long.SIZE;
+    long firstBits = -1L << (start % Long.SIZE);
+    long lastBits = -1L >>> (Long.SIZE - 1 - (end - 1) % Long.SIZE);
+    if (firstWord == lastWord) {
+      mask[firstWord] |= firstBits & lastBits;
+      return;
+    }
+    mask[firstWord] |= firstBits;
+    for (int i = firstWord + 1; i < lastWord; i++) {
+      mask[i] = -1L;
+    }
+    mask[lastWord] |= lastBits;
+  }
+}
@@ -0,0 +1,189 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Places many meetings at once so that they do not collide with each other, such as the agenda of
+ * an offsite. Requests are placed greedily from the highest priority down, each one at the earliest
+ * time {@code FindMeetingQuery} would offer. Every placed meeting is added to an
+ * {@code AvailabilityCache}, which only updates the busy lists of its attendees, so the following
+ * requests see it without any query being run again from the events. This class is not
+ * thread-safe.
+ */
+public final class BulkScheduler {
+  private final AvailabilityCache availability;
+  private final PriorityQueue<Pending> pending = new PriorityQueue<>(11, new Comparator<Pending>() {
+    @Override
+    public int compare(Pending a, Pending b) {
+      // Highest priority first, then in the order the requests were added.
+      if (a.priority != b.priority) {
+        return Integer.compare(b.priority, a.priority);
+      }
+      return Long.compare(a.order, b.order);
+    }
+  });
+  private long added;
+
+  /**
+   * Creates a scheduler placing meetings around {@code events}.
+   */
+  public BulkScheduler(Collection<Event> events) {
+    this(new AvailabilityCache(events));
+  }
+
+  /**
+   * Creates a scheduler placing meetings around the events of {@code availability}. Placed
+   * meetings are added to it.
+   */
+  public BulkScheduler(AvailabilityCache availability) {
+    if (availability == null) {
+      throw new IllegalArgumentException("availability cannot be null");
+    }
+    this.availability = availability;
+  }
+
+  /**
+   * Adds a meeting to place, named {@code title}. Meetings with a higher {@code priority} are
+   * placed first.
+   */
+  public void add(String title, MeetingRequest request, int priority) {
+    if (title == null) {
+      throw new IllegalArgumentException("title cannot be null");
+    }
+
+    if (request == null) {
+      throw new IllegalArgumentException("request cannot be null");
+    }
+
+    pending.add(new Pending(title, request, priority, added++));
+  }
+
+  /**
+   * Places every meeting added since the last call. A meeting is placed at the start of the
+   * earliest slot of its request, and its optional attendees who are free then attend it too.
+   * Meetings placed by earlier calls keep their place and block the following ones.
+   */
+  public Schedule schedule() {
+    List<Placement> placed = new ArrayList<>();
+    List<MeetingRequest> unplaced = new ArrayList<>();
+    while (!pending.isEmpty()) {
+      Pending next = pending.poll();
+      MeetingRequest request = next.request;
+      Collection<TimeRange> slots = availability.query(request);
+      if (slots.isEmpty()) {
+        unplaced.add(request);
+        continue;
+      }
+
+      TimeRange when = TimeRange.fromStartDuration(
+          slots.iterator().next().start(), (int) request.getDuration());
+      List<String> attendees = new ArrayList<>(request.getAttendees());
+      for (String attendee : request.getOptionalAttendees()) {
+        if (isFree(attendee, when)) {
+          attendees.add(attendee);
+        }
+      }
+      Event meeting = new Event(next.title, when, attendees);
+      availability.addEvent(meeting);
+      placed.add(new Placement(request, meeting));
+    }
+    return new Schedule(placed, unplaced);
+  }
+
+  private boolean isFree(String attendee, TimeRange when) {
+    for (TimeRange busy : availability.getBusy(attendee)) {
+      if (busy.overlaps(when)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * The outcome of {@code schedule}.
+   */
+  public static final class Schedule {
+    private final List<Placement> placed;
+    private final List<MeetingRequest> unplaced;
+
+    private Schedule(List<Placement> placed, List<MeetingRequest> unplaced) {
+      this.placed = Collections.unmodifiableList(placed);
+      this.unplaced = Collections.unmodifiableList(unplaced);
+    }
+
+    /**
+     * Returns the meeting placed for each added request that found room, in the order they were
+     * placed. A request added several times has one placement per time it was placed.
+     */
+    public List<Placement> getPlaced() {
+      return placed;
+    }
+
+    /**
+     * Returns the requests that could not be placed, from the highest priority down.
+     */
+    public List<MeetingRequest> getUnplaced() {
+      return unplaced;
+    }
+  }
+
+  /**
+   * A request and the meeting placed for it.
+   */
+  public static final class Placement {
+    private final MeetingRequest request;
+    private final Event event;
+
+    private Placement(MeetingRequest request, Event event) {
+      this.request = request;
+      this.event = event;
+    }
+
+    /**
+     * Returns the request that was placed.
+     */
+    public MeetingRequest getRequest() {
+      return request;
+    }
+
+    /**
+     * Returns the meeting placed for the request, as added to the availability.
+     */
+    public Event getEvent() {
+      return event;
+    }
+  }
+
+  private static final class Pending {
+    final String title;
+    final MeetingRequest request;
+    final int priority;
+    final long order;
+
+    Pending(String title, MeetingRequest request, int priority, long order) {
+      this.title = title;
+      this.request = request;
+      this.priority = priority;
+      this.order = order;
+    }
+  }
+}
@@ -0,0 +1,149 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generates a realistic calendar for one working day, to try the scheduler on calendars the size
+ * of a company. Employees are grouped in teams that share a daily stand-up, everyone has a few
+ * recurring personal blocks such as lunch, and meetings mostly bring together people of the same
+ * team. The same seed always generates the same calendar.
+ */
+public final class CalendarGenerator {
+  private static final int TEAM_SIZE = 8;
+  private static final int SLOT = 30;
+  private static final int WORK_START = TimeRange.getTimeInMinutes(9, 0);
+  private static final int WORK_END = TimeRange.getTimeInMinutes(18, 0);
+  private static final int MIN_ATTENDEES = 2;
+  private static final int MAX_ATTENDEES = 5;
+  // Share of the attendees of a meeting that come from the organizer's team.
+  private static final double SAME_TEAM_RATIO = 0.8;
+
+  private static final String[] BLOCK_TITLES = {"Lunch", "Focus time", "Admin", "Commute"};
+  private static final String[] MEETING_TITLES =
+      {"1-on-1", "Design Review", "Hiring Review", "Project Sync", "Team Sync"};
+
+  private final long seed;
+  private final int employees;
+  private final double meetingsPerEmployee;
+  private final int recurringBlocksPerEmployee;
+
+  /**
+   * Creates a generator.
+   *
+   * @param seed The seed of the random numbers.
+   * @param employees The number of people in the calendar. Must be positive.
+   * @param meetingsPerEmployee The average number of meetings each person attends. Must not be
+   *     negative.
+   * @param recurringBlocksPerEmployee The number of recurring personal blocks of each person. Must
+   *     not be negative.
+   */
+  public CalendarGenerator(
+      long seed, int employees, double meetingsPerEmployee, int recurringBlocksPerEmployee) {
+    if (employees <= 0) {
+      throw new IllegalArgumentException("employees must be positive");
+    }
+
+    if (meetingsPerEmployee < 0 || recurringBlocksPerEmployee < 0) {
+      throw new IllegalArgumentException("meetings and blocks cannot be negative");
+    }
+
+    this.seed = seed;
+    this.employees = employees;
+    this.meetingsPerEmployee = meetingsPerEmployee;
+    this.recurringBlocksPerEmployee = recurringBlocksPerEmployee;
+  }
+
+  /**
+   * Returns the names of the people in the calendar.
+   */
+  public List<String> getEmployees() {
+    List<String> names = new ArrayList<>(employees);
+    for (int i = 0; i < employees; i++) {
+      names.add(employeeName(i));
+    }
+    return names;
+  }
+
+  /**
+   * Returns the events of the calendar.
+   */
+  public List<Event> generate() {
+    Random random = new Random(seed);
+    List<Event> events = new ArrayList<>();
+
+    // Every team meets at the same time each morning.
+    for (int team = 0; team * TEAM_SIZE < employees; team++) {
+      List<String> members = new ArrayList<>();
+      for (int i = team * TEAM_SIZE; i < Math.min((team + 1) * TEAM_SIZE, employees); i++) {
+        members.add(employeeName(i));
+      }
+      int start = WORK_START + random.nextInt(4) * SLOT;
+      events.add(new Event("Team stand-up", TimeRange.fromStartDuration(start, 15), members));
+    }
+
+    // Recurring personal blocks.
+    for (int i = 0; i < employees; i++) {
+      for (int block = 0; block < recurringBlocksPerEmployee; block++) {
+        events.add(new Event(BLOCK_TITLES[block % BLOCK_TITLES.length],
+            randomRange(random, 1 + random.nextInt(4)),
+            Collections.singletonList(employeeName(i))));
+      }
+    }
+
+    // Meetings, sized so that each person attends meetingsPerEmployee of them on average.
+    double averageAttendees = (MIN_ATTENDEES + MAX_ATTENDEES) / 2.0;
+    long meetings = Math.round(employees * meetingsPerEmployee / averageAttendees);
+    for (long meeting = 0; meeting < meetings; meeting++) {
+      int organizer = random.nextInt(employees);
+      int size = MIN_ATTENDEES + random.nextInt(MAX_ATTENDEES - MIN_ATTENDEES + 1);
+      Set<String> attendees = new LinkedHashSet<>();
+      attendees.add(employeeName(organizer));
+      for (int attempt = 0; attendees.size() < Math.min(size, employees); attempt++) {
+        int other = random.nextDouble() < SAME_TEAM_RATIO && attempt < 4 * size
+            ? sameTeam(random, organizer)
+            : random.nextInt(employees);
+        attendees.add(employeeName(other));
+      }
+      events.add(new Event(MEETING_TITLES[random.nextInt(MEETING_TITLES.length)],
+          randomRange(random, 1 + random.nextInt(2)), attendees));
+    }
+    return events;
+  }
+
+  private int sameTeam(Random random, int employee) {
+    int teamStart = employee / TEAM_SIZE * TEAM_SIZE;
+    int teamSize = Math.min(TEAM_SIZE, employees - teamStart);
+    return teamStart + random.nextInt(teamSize);
+  }
+
+  /**
+   * Returns a range of {@code slots} half hours during working hours.
+   */
+  private static TimeRange randomRange(Random random, int slots) {
+    int startSlots = (WORK_END - WORK_START) / SLOT - slots + 1;
+    return TimeRange.fromStartDuration(WORK_START + random.nextInt(startSlots) * SLOT, slots * SLOT);
+  }
+
+  private static String employeeName(int employee) {
+    return "Employee " + employee;
+  }
+}
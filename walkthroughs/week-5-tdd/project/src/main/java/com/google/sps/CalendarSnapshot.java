@@ -0,0 +1,423 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only calendar stored in a compact binary file, read through a memory-mapped buffer. Events
+ * are decoded only when they are read, so their data stays outside the heap. Opening a snapshot
+ * only checks its header, so it takes the same time whatever the size of the file. Each event is
+ * checked when it is read, failing with an {@code UncheckedIOException} if it is corrupted, and
+ * {@code verify} checks the whole file up front. Each distinct title and name is decoded and
+ * interned at most once, however many events share it.
+ *
+ * <p>A snapshot is made of, all integers being big-endian:
+ *
+ * <ul>
+ *   <li>a header: the magic number, the format version, the number of strings, the number of
+ *       events, and the offsets of the string data, of the event records and of the attendees;
+ *   <li>the string table: the offset of each string in the string data, then one past the last;
+ *   <li>the string data: the UTF-8 bytes of every distinct title and attendee name;
+ *   <li>one fixed-size record per event: title string, start, duration, offset of its attendees
+ *       and number of attendees;
+ *   <li>the attendees of every event: their sorted string numbers, each one stored as a varint of
+ *       its difference with the previous one.
+ * </ul>
+ */
+public final class CalendarSnapshot implements EventSource {
+  private static final int MAGIC = 0x53505343;
+  private static final int FORMAT_VERSION = 1;
+  private static final int HEADER_SIZE = 7 * Integer.BYTES;
+  private static final int RECORD_SIZE = 5 * Integer.BYTES;
+
+  private final ByteBuffer buffer;
+  private final int stringCount;
+  private final int eventCount;
+  private final int stringData;
+  private final int records;
+  private final int attendees;
+  private final List<Event> events = new EventList();
+  // Decoded strings and interned attendee ids by string number, filled the first time each one is
+  // needed. Racing threads at worst decode the same string twice, and strings are immutable.
+  private final String[] strings;
+  private final int[] attendeeIds;
+
+  private CalendarSnapshot(ByteBuffer buffer) throws IOException {
+    if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+      throw new IOException("Not a calendar snapshot");
+    }
+    if (buffer.getInt(4) != FORMAT_VERSION) {
+      throw new IOException("Unsupported calendar snapshot version " + buffer.getInt(4));
+    }
+    this.buffer = buffer;
+    this.stringCount = buffer.getInt(8);
+    this.eventCount = buffer.getInt(12);
+    this.stringData = buffer.getInt(16);
+    this.records = buffer.getInt(20);
+    this.attendees = buffer.getInt(24);
+    // The string table sits right after the header, then come the sections in order.
+    if (stringCount < 0 || eventCount < 0
+        || stringData != HEADER_SIZE + ((long) stringCount + 1) * Integer.BYTES
+        || records < stringData || records + (long) eventCount * RECORD_SIZE > attendees
+        || attendees > buffer.capacity()) {
+      throw corrupted("bad section offsets");
+    }
+    this.strings = new String[stringCount];
+    this.attendeeIds = new int[stringCount];
+    Arrays.fill(attendeeIds, AttendeeDictionary.UNKNOWN);
+  }
+
+  /**
+   * Checks every string, event record and attendee number of the snapshot in one pass over the
+   * file, without decoding anything. Reading an event checks its own data anyway, so this is only
+   * needed to find a corrupted file before using it.
+   *
+   * @throws IOException if the snapshot is truncated or corrupted.
+   */
+  public void verify() throws IOException {
+    try {
+      for (int number = 0; number < stringCount; number++) {
+        stringStart(number);
+      }
+      for (int index = 0; index < eventCount; index++) {
+        attendeeNumbers(record(index));
+      }
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  private static IOException corrupted(String reason) {
+    return new IOException("Corrupted calendar snapshot: " + reason);
+  }
+
+  private static UncheckedIOException uncheckedCorrupted(String reason) {
+    return new UncheckedIOException(corrupted(reason));
+  }
+
+  /**
+   * Maps the snapshot file at {@code path}. The file must not change while the snapshot is in use.
+   */
+  public static CalendarSnapshot open(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      // The mapping stays valid after the channel is closed.
+      return new CalendarSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  /**
+   * Reads a snapshot from the bytes written by {@code write}.
+   */
+  public static CalendarSnapshot wrap(byte[] bytes) throws IOException {
+    return new CalendarSnapshot(ByteBuffer.wrap(bytes).asReadOnlyBuffer());
+  }
+
+  /**
+   * Writes a snapshot of {@code events} to the file at {@code path}, replacing it if it exists.
+   */
+  public static void write(Collection<Event> events, Path path) throws IOException {
+    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path))) {
+      write(events, out);
+    }
+  }
+
+  /**
+   * Writes a snapshot of {@code events} to {@code out}.
+   */
+  public static void write(Collection<Event> events, OutputStream out) throws IOException {
+    if (events == null) {
+      throw new IllegalArgumentException("events cannot be null");
+    }
+
+    // Number every distinct string, in order of first use.
+    Map<String, Integer> strings = new LinkedHashMap<>();
+    for (Event event : events) {
+      number(strings, event.getTitle());
+      for (String attendee : event.getAttendees()) {
+        number(strings, attendee);
+      }
+    }
+
+    ByteArrayOutputStream stringBytes = new ByteArrayOutputStream();
+    int[] stringOffsets = new int[strings.size() + 1];
+    int string = 0;
+    for (String value : strings.keySet()) {
+      byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+      stringBytes.write(utf8, 0, utf8.length);
+      stringOffsets[++string] = stringBytes.size();
+    }
+
+    ByteArrayOutputStream attendeeBytes = new ByteArrayOutputStream();
+    ByteArrayOutputStream recordBytes = new ByteArrayOutputStream(events.size() * RECORD_SIZE);
+    DataOutputStream recordOut = new DataOutputStream(recordBytes);
+    for (Event event : events) {
+      int[] numbers = new int[event.getAttendees().size()];
+      int count = 0;
+      for (String attendee : event.getAttendees()) {
+        numbers[count++] = strings.get(attendee);
+      }
+      Arrays.sort(numbers);
+
+      recordOut.writeInt(strings.get(event.getTitle()));
+      recordOut.writeInt(event.getWhen().start());
+      recordOut.writeInt(event.getWhen().duration());
+      recordOut.writeInt(attendeeBytes.size());
+      recordOut.writeInt(numbers.length);
+      int previous = 0;
+      for (int number : numbers) {
+        writeVarint(attendeeBytes, number - previous);
+        previous = number;
+      }
+    }
+
+    long stringData = HEADER_SIZE + (long) stringOffsets.length * Integer.BYTES;
+    long records = stringData + stringBytes.size();
+    long attendees = records + recordBytes.size();
+    if (attendees + attendeeBytes.size() > Integer.MAX_VALUE) {
+      throw new IOException("Calendar too large for a snapshot");
+    }
+
+    DataOutputStream data = new DataOutputStream(out);
+    data.writeInt(MAGIC);
+    data.writeInt(FORMAT_VERSION);
+    data.writeInt(strings.size());
+    data.writeInt(events.size());
+    data.writeInt((int) stringData);
+    data.writeInt((int) records);
+    data.writeInt((int) attendees);
+    for (int offset : stringOffsets) {
+      data.writeInt(offset);
+    }
+    stringBytes.writeTo(data);
+    recordBytes.writeTo(data);
+    attendeeBytes.writeTo(data);
+    data.flush();
+  }
+
+  /**
+   * Returns a read-only list of the events of the snapshot, in the order they were written. Each
+   * read creates a new {@code Event} from the buffer, sharing the titles and names already decoded.
+   */
+  @Override
+  public List<Event> getEvents() {
+    return events;
+  }
+
+  /**
+   * Returns 0, since a snapshot never changes.
+   */
+  @Override
+  public long getVersion() {
+    return 0;
+  }
+
+  /**
+   * Returns the number of events in the snapshot.
+   */
+  public int size() {
+    return eventCount;
+  }
+
+  /**
+   * Returns when the event at {@code index} takes place, without decoding the rest of the event.
+   */
+  public TimeRange getWhen(int index) {
+    int record = record(index);
+    return TimeRange.fromStartDuration(buffer.getInt(record + 4), buffer.getInt(record + 8));
+  }
+
+  /**
+   * Returns the title of the event at {@code index}.
+   */
+  public String getTitle(int index) {
+    return string(buffer.getInt(record(index)));
+  }
+
+  /**
+   * Returns the read-only set of attendees of the event at {@code index}, without creating the
+   * event.
+   */
+  public Set<String> getAttendees(int index) {
+    AttendeeDictionary dictionary = AttendeeDictionary.getDefault();
+    return new AttendeeSet(dictionary, attendeeIds(record(index)));
+  }
+
+  /**
+   * Returns the event at {@code index}.
+   */
+  public Event getEvent(int index) {
+    int record = record(index);
+    return new Event(string(buffer.getInt(record)), getWhen(index),
+        new AttendeeSet(AttendeeDictionary.getDefault(), attendeeIds(record)));
+  }
+
+  /**
+   * Returns the sorted ids in the default {@code AttendeeDictionary} of the attendees of the event
+   * at {@code record}.
+   */
+  private int[] attendeeIds(int record) {
+    int[] ids = attendeeNumbers(record);
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = attendeeId(ids[i]);
+    }
+    // The names are sorted by string number, which is not the order of their ids.
+    Arrays.sort(ids);
+    return ids;
+  }
+
+  /**
+   * Returns the string numbers of the attendees of the event at {@code record}, checking that they
+   * are strictly increasing and that each one exists.
+   */
+  private int[] attendeeNumbers(int record) {
+    long position = attendees + (long) buffer.getInt(record + 12);
+    int count = buffer.getInt(record + 16);
+    int size = buffer.capacity();
+    // Each number takes at least one byte, so a count past the end of the file is corrupted.
+    if (count < 0 || position < attendees || position + count > size) {
+      throw uncheckedCorrupted("bad attendees at record offset " + record);
+    }
+
+    int[] numbers = new int[count];
+    long number = 0;
+    for (int i = 0; i < count; i++) {
+      // Read one varint: 7 bits per byte, least significant group first.
+      long delta = 0;
+      int shift = 0;
+      byte b;
+      do {
+        if (position >= size || shift > 28) {
+          throw uncheckedCorrupted("bad attendees at record offset " + record);
+        }
+        b = buffer.get((int) position++);
+        delta |= (long) (b & 0x7f) << shift;
+        shift += 7;
+      } while (b < 0);
+      number += delta;
+      // Numbers are strictly increasing, so only the first one can repeat the start at 0.
+      if ((i > 0 && delta == 0) || number >= stringCount) {
+        throw uncheckedCorrupted("bad attendees at record offset " + record);
+      }
+      numbers[i] = (int) number;
+    }
+    return numbers;
+  }
+
+  private int attendeeId(int number) {
+    int id = attendeeIds[number];
+    if (id == AttendeeDictionary.UNKNOWN) {
+      id = AttendeeDictionary.getDefault().intern(string(number));
+      attendeeIds[number] = id;
+    }
+    return id;
+  }
+
+  /**
+   * Returns the offset of the record of the event at {@code index}, checking its title, time range
+   * and attendee count.
+   */
+  private int record(int index) {
+    if (index < 0 || index >= eventCount) {
+      throw new IndexOutOfBoundsException("No event " + index + " in a snapshot of " + eventCount);
+    }
+    int record = records + index * RECORD_SIZE;
+    int title = buffer.getInt(record);
+    int start = buffer.getInt(record + 4);
+    int duration = buffer.getInt(record + 8);
+    if (title < 0 || title >= stringCount || duration < 0
+        || start + (long) duration > Integer.MAX_VALUE) {
+      throw uncheckedCorrupted("bad record for event " + index);
+    }
+    return record;
+  }
+
+  private String string(int number) {
+    String value = strings[number];
+    if (value == null) {
+      value = decodeString(number);
+      strings[number] = value;
+    }
+    return value;
+  }
+
+  private String decodeString(int number) {
+    int start = stringStart(number);
+    byte[] utf8 = new byte[buffer.getInt(HEADER_SIZE + (number + 1) * Integer.BYTES) - start];
+    // Reading through a duplicate keeps the shared buffer's position untouched for other threads.
+    ByteBuffer view = buffer.duplicate();
+    view.position(stringData + start);
+    view.get(utf8);
+    return new String(utf8, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Returns the offset in the string data of string {@code number}, checking that the string lies
+   * inside the string data.
+   */
+  private int stringStart(int number) {
+    int offset = HEADER_SIZE + number * Integer.BYTES;
+    int start = buffer.getInt(offset);
+    int end = buffer.getInt(offset + Integer.BYTES);
+    if (start < 0 || end < start || stringData + (long) end > records) {
+      throw uncheckedCorrupted("bad offset for string " + number);
+    }
+    return start;
+  }
+
+  private static void number(Map<String, Integer> strings, String value) {
+    if (!strings.containsKey(value)) {
+      strings.put(value, strings.size());
+    }
+  }
+
+  private static void writeVarint(ByteArrayOutputStream out, int value) {
+    while ((value & ~0x7f) != 0) {
+      out.write((value & 0x7f) | 0x80);
+      value >>>= 7;
+    }
+    out.write(value);
+  }
+
+  private final class EventList extends AbstractList<Event> {
+    @Override
+    public Event get(int index) {
+      return getEvent(index);
+    }
+
+    @Override
+    public int size() {
+      return eventCount;
+    }
+  }
+}
@@ -15,8 +15,6 @@
 package com.google.sps;
 
 import java.util.Collection;
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.Set;
 
 /**
@@ -26,7 +24,9 @@ import java.util.Set;
 public final class Event {
   private final String title;
   private final TimeRange when;
-  private final Set<String> attendees = new HashSet<>();
+  // Stored as interned ids to keep large calendars small. Gson still serializes it as a list of
+  // names because the field is declared as a {@code Set}.
+  private final Set<String> attendees;
 
   /**
    * Creates a new event.
@@ -50,7 +50,18 @@ public final class Event {
 
     this.title = title;
     this.when = when;
-    this.attendees.addAll(attendees);
+    AttendeeDictionary dictionary = AttendeeDictionary.getDefault();
+    this.attendees = new AttendeeSet(dictionary, dictionary.intern(attendees));
+  }
+
+  /**
+   * Creates a new event whose attendees are already interned, such as an occurrence of a
+   * {@code RecurringEvent}.
+   */
+  Event(String title, TimeRange when, AttendeeSet attendees) {
+    this.title = title;
+    this.when = when;
+    this.attendees = attendees;
   }
 
   /**
@@ -71,9 +82,23 @@ public final class Event {
    * Returns a read-only set of required attendees for this event.
    */
   public Set<String> getAttendees() {
-    // Return the attendees as an unmodifiable set so that the caller can't change our
-    // internal data.
-    return Collections.unmodifiableSet(attendees);
+    // The attendee set is read-only, so the caller can't change our internal data.
+    return attendees;
+  }
+
+  /**
+   * Returns true if at least one of the attendees of this event has one of the sorted ids in
+   * {@code attendeeIds}, as returned by {@code AttendeeDictionary.getDefault()}.
+   */
+  public boolean attendedByAny(int[] attendeeIds) {
+    return AttendeeDictionary.intersects(attendeeIds(), attendeeIds);
+  }
+
+  /**
+   * Returns the sorted ids of the attendees. The array must not be modified.
+   */
+  int[] attendeeIds() {
+    return ((AttendeeSet) attendees).ids();
   }
 
   @Override
@@ -0,0 +1,77 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Events added to and removed from an {@code EventSource} between two of its versions, in the
+ * order they happened. Changes are considered read-only.
+ */
+public final class EventChanges {
+  private final List<Event> events;
+  private final boolean[] added;
+  private final long version;
+
+  /**
+   * Creates the changes that lead to version {@code version}.
+   *
+   * @param events The events added or removed, in order. Must be non-null.
+   * @param added Whether each event of {@code events} was added, rather than removed.
+   * @param version The version of the source after the changes.
+   */
+  public EventChanges(List<Event> events, boolean[] added, long version) {
+    if (events == null || added == null) {
+      throw new IllegalArgumentException("events cannot be null");
+    }
+
+    if (events.size() != added.length) {
+      throw new IllegalArgumentException("events and added must have the same length");
+    }
+
+    this.events = new ArrayList<>(events);
+    this.added = added.clone();
+    this.version = version;
+  }
+
+  /**
+   * Returns the number of changes.
+   */
+  public int size() {
+    return events.size();
+  }
+
+  /**
+   * Returns the event of change {@code index}.
+   */
+  public Event getEvent(int index) {
+    return events.get(index);
+  }
+
+  /**
+   * Returns true if change {@code index} added its event, false if it removed it.
+   */
+  public boolean isAdded(int index) {
+    return added[index];
+  }
+
+  /**
+   * Returns the version of the source after the changes.
+   */
+  public long getVersion() {
+    return version;
+  }
+}
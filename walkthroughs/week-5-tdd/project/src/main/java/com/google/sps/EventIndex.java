@@ -0,0 +1,151 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted index from each attendee to the events they attend, so that a query only has to look at
+ * the events of the people it is asking about. Recurring events are indexed as they are and only
+ * expanded for the day being asked about. The index is built once and is read-only.
+ */
+public final class EventIndex {
+  private final Map<String, List<Event>> eventsByAttendee = new HashMap<>();
+  private final Map<String, List<RecurringEvent>> recurringByAttendee = new HashMap<>();
+  private final int size;
+
+  /**
+   * Creates an index over {@code events}.
+   *
+   * @param events The events to index. Must be non-null.
+   */
+  public EventIndex(Collection<Event> events) {
+    this(events, Collections.<RecurringEvent>emptyList());
+  }
+
+  /**
+   * Creates an index over the one-off {@code events} and the {@code recurring} events.
+   *
+   * @param events The one-off events to index. Must be non-null.
+   * @param recurring The recurring events to index. Must be non-null.
+   */
+  public EventIndex(Collection<Event> events, Collection<RecurringEvent> recurring) {
+    if (events == null) {
+      throw new IllegalArgumentException("events cannot be null");
+    }
+
+    if (recurring == null) {
+      throw new IllegalArgumentException("recurring cannot be null");
+    }
+
+    for (Event event : events) {
+      for (String attendee : event.getAttendees()) {
+        add(eventsByAttendee, attendee, event);
+      }
+    }
+    for (RecurringEvent event : recurring) {
+      for (String attendee : event.getAttendees()) {
+        add(recurringByAttendee, attendee, event);
+      }
+    }
+    this.size = events.size();
+  }
+
+  private static <T> void add(Map<String, List<T>> index, String attendee, T event) {
+    List<T> attendeeEvents = index.get(attendee);
+    if (attendeeEvents == null) {
+      attendeeEvents = new ArrayList<>();
+      index.put(attendee, attendeeEvents);
+    }
+    attendeeEvents.add(event);
+  }
+
+  /**
+   * Returns the number of one-off events in the index.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns a read-only list of the events {@code attendee} attends. The list is empty for people
+   * the index does not know about.
+   */
+  public List<Event> getEvents(String attendee) {
+    List<Event> attendeeEvents = eventsByAttendee.get(attendee);
+    if (attendeeEvents == null) {
+      return Collections.emptyList();
+    }
+    return Collections.unmodifiableList(attendeeEvents);
+  }
+
+  /**
+   * Returns the events attended by at least one of {@code attendees}. Each event is returned once,
+   * even if several of the attendees go to it.
+   */
+  public Collection<Event> getEvents(Collection<String> attendees) {
+    // Events are compared by identity: two distinct events with the same title, time and attendees
+    // must both be kept.
+    Set<Event> seen = Collections.newSetFromMap(new IdentityHashMap<Event, Boolean>());
+    List<Event> result = new ArrayList<>();
+    for (String attendee : attendees) {
+      for (Event event : getEvents(attendee)) {
+        if (seen.add(event)) {
+          result.add(event);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns a read-only list of the recurring events {@code attendee} attends.
+   */
+  public List<RecurringEvent> getRecurringEvents(String attendee) {
+    List<RecurringEvent> attendeeEvents = recurringByAttendee.get(attendee);
+    if (attendeeEvents == null) {
+      return Collections.emptyList();
+    }
+    return Collections.unmodifiableList(attendeeEvents);
+  }
+
+  /**
+   * Returns the one-off events attended by at least one of {@code attendees}, along with the
+   * occurrences on {@code day} of the recurring events they attend. Each event is returned once.
+   */
+  public Collection<Event> getEvents(Collection<String> attendees, long day) {
+    List<Event> result = new ArrayList<>(getEvents(attendees));
+    Set<RecurringEvent> seen =
+        Collections.newSetFromMap(new IdentityHashMap<RecurringEvent, Boolean>());
+    for (String attendee : attendees) {
+      for (RecurringEvent event : getRecurringEvents(attendee)) {
+        if (seen.add(event)) {
+          Event occurrence = event.occurrenceOn(day);
+          if (occurrence != null) {
+            result.add(occurrence);
+          }
+        }
+      }
+    }
+    return result;
+  }
+}
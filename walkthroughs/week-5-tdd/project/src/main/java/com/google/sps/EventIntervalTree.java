@@ -0,0 +1,144 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Static interval tree over the times of a set of events, answering "which events overlap this
+ * window" in O(log(n) + k) for k results instead of checking every event.
+ *
+ * <p>The events are sorted by start and the sorted array is read as an implicit balanced binary
+ * search tree: the root of the range {@code [low, high)} is its middle element. Each node also
+ * stores the latest end in its subtree, so that subtrees ending before the window are skipped.
+ */
+public final class EventIntervalTree {
+  private final Event[] events;
+  private final int[] starts;
+  private final int[] ends;
+  private final int[] maxEnds;
+
+  /**
+   * Builds the tree over {@code events}.
+   *
+   * @param events The events to index. Must be non-null.
+   */
+  public EventIntervalTree(Collection<Event> events) {
+    if (events == null) {
+      throw new IllegalArgumentException("events cannot be null");
+    }
+
+    this.events = events.toArray(new Event[0]);
+    Arrays.sort(this.events, new Comparator<Event>() {
+      @Override
+      public int compare(Event a, Event b) {
+        return TimeRange.ORDER_BY_START.compare(a.getWhen(), b.getWhen());
+      }
+    });
+    this.starts = new int[this.events.length];
+    this.ends = new int[this.events.length];
+    this.maxEnds = new int[this.events.length];
+    for (int i = 0; i < this.events.length; i++) {
+      starts[i] = this.events[i].getWhen().start();
+      ends[i] = this.events[i].getWhen().end();
+    }
+    buildMaxEnds(0, this.events.length);
+  }
+
+  /**
+   * Returns the number of events in the tree.
+   */
+  public int size() {
+    return events.length;
+  }
+
+  /**
+   * Returns the events that take place during at least one minute of {@code window}, ordered by
+   * start time.
+   */
+  public List<Event> overlapping(TimeRange window) {
+    List<Event> result = new ArrayList<>();
+    if (window.duration() > 0) {
+      collect(0, events.length, window.start(), window.end(), result);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the events taking place during minute {@code minute}, ordered by start time.
+   */
+  public List<Event> at(int minute) {
+    return overlapping(TimeRange.fromStartDuration(minute, 1));
+  }
+
+  /**
+   * Returns the events during {@code window} that at least one of {@code attendees} attends,
+   * ordered by start time. These are the events that conflict with a meeting of
+   * {@code attendees} during {@code window}.
+   */
+  public List<Event> conflicts(TimeRange window, Collection<String> attendees) {
+    int[] attendeeIds = AttendeeDictionary.getDefault().lookup(attendees);
+    List<Event> result = new ArrayList<>();
+    for (Event event : overlapping(window)) {
+      if (event.attendedByAny(attendeeIds)) {
+        result.add(event);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns a read-only view of all the events of the tree, ordered by start time.
+   */
+  List<Event> byStart() {
+    return Collections.unmodifiableList(Arrays.asList(events));
+  }
+
+  private int buildMaxEnds(int low, int high) {
+    if (low >= high) {
+      return Integer.MIN_VALUE;
+    }
+    int middle = (low + high) >>> 1;
+    int maxEnd = Math.max(ends[middle],
+        Math.max(buildMaxEnds(low, middle), buildMaxEnds(middle + 1, high)));
+    maxEnds[middle] = maxEnd;
+    return maxEnd;
+  }
+
+  private void collect(int low, int high, int windowStart, int windowEnd, List<Event> result) {
+    if (low >= high) {
+      return;
+    }
+    int middle = (low + high) >>> 1;
+    if (maxEnds[middle] <= windowStart) {
+      // Nothing in this subtree ends after the window starts.
+      return;
+    }
+    collect(low, middle, windowStart, windowEnd, result);
+    if (starts[middle] >= windowEnd) {
+      // This event and everything after it starts after the window ends.
+      return;
+    }
+    if (ends[middle] > windowStart && ends[middle] > starts[middle]) {
+      result.add(events[middle]);
+    }
+    collect(middle + 1, high, windowStart, windowEnd, result);
+  }
+}
@@ -0,0 +1,43 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Collection;
+
+/**
+ * Where the servlets get the events of the calendar from. See {@code EventSources} for the source
+ * in use.
+ */
+public interface EventSource {
+  /**
+   * Returns a read-only view of the current events.
+   */
+  Collection<Event> getEvents();
+
+  /**
+   * Returns a number that changes every time the events change, so that anything derived from the
+   * events knows when to be rebuilt.
+   */
+  long getVersion();
+
+  /**
+   * Returns the events added and removed since version {@code version}, in the order they
+   * happened, or null if the source does not know them. Anything derived from the events can then
+   * be updated instead of rebuilt. Sources that don't keep their changes return null.
+   */
+  default EventChanges getChangesSince(long version) {
+    return null;
+  }
+}
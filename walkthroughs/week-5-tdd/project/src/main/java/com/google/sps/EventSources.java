@@ -0,0 +1,67 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Holds the {@code EventSource} used by the servlets. It serves {@code Events.events} unless
+ * another source is plugged in with {@code set}, for example a generated calendar in a load test.
+ */
+public final class EventSources {
+  private static volatile EventSource current = fixed(Arrays.asList(Events.events));
+
+  private EventSources() {
+    // Disallow instances.
+  }
+
+  /**
+   * Returns the source the servlets read events from.
+   */
+  public static EventSource get() {
+    return current;
+  }
+
+  /**
+   * Makes the servlets read events from {@code source}.
+   */
+  public static void set(EventSource source) {
+    if (source == null) {
+      throw new IllegalArgumentException("source cannot be null");
+    }
+    current = source;
+  }
+
+  /**
+   * Returns a source serving a copy of {@code events}, which never changes.
+   */
+  public static EventSource fixed(Collection<Event> events) {
+    final Collection<Event> copy = Collections.unmodifiableList(new ArrayList<>(events));
+    return new EventSource() {
+      @Override
+      public Collection<Event> getEvents() {
+        return copy;
+      }
+
+      @Override
+      public long getVersion() {
+        return 0;
+      }
+    };
+  }
+}
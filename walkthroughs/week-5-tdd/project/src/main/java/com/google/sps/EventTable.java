@@ -0,0 +1,185 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar, read-only storage for a large calendar. Each event is a row of four {@code int}
+ * columns: its title, its start, its duration and its attendee set. Titles and attendee sets are
+ * stored once however many events share them, so a calendar full of "Team Sync"s of the same teams
+ * takes a fraction of the memory of as many {@code Event}s, and a scan reads contiguous arrays.
+ *
+ * <p>{@code get} returns an {@code Event} view of a row, which shares the stored title and
+ * attendee set instead of copying them.
+ */
+public final class EventTable {
+  private final String[] titles;
+  private final AttendeeSet[] attendeeSets;
+  private final int[] titleColumn;
+  private final int[] startColumn;
+  private final int[] durationColumn;
+  private final int[] attendeeSetColumn;
+
+  /**
+   * Creates a table holding {@code events}, in order.
+   *
+   * @param events The events to store. Must be non-null.
+   */
+  public EventTable(Collection<Event> events) {
+    if (events == null) {
+      throw new IllegalArgumentException("events cannot be null");
+    }
+
+    int rows = events.size();
+    this.titleColumn = new int[rows];
+    this.startColumn = new int[rows];
+    this.durationColumn = new int[rows];
+    this.attendeeSetColumn = new int[rows];
+
+    Map<String, Integer> titleNumbers = new HashMap<>();
+    List<String> titleList = new ArrayList<>();
+    Map<IdsKey, Integer> setNumbers = new HashMap<>();
+    List<AttendeeSet> setList = new ArrayList<>();
+    AttendeeDictionary dictionary = AttendeeDictionary.getDefault();
+    int row = 0;
+    for (Event event : events) {
+      Integer title = titleNumbers.get(event.getTitle());
+      if (title == null) {
+        title = titleList.size();
+        titleNumbers.put(event.getTitle(), title);
+        titleList.add(event.getTitle());
+      }
+
+      IdsKey key = new IdsKey(event.attendeeIds());
+      Integer set = setNumbers.get(key);
+      if (set == null) {
+        set = setList.size();
+        setNumbers.put(key, set);
+        setList.add(new AttendeeSet(dictionary, key.ids));
+      }
+
+      titleColumn[row] = title;
+      startColumn[row] = event.getWhen().start();
+      durationColumn[row] = event.getWhen().duration();
+      attendeeSetColumn[row] = set;
+      row++;
+    }
+    this.titles = titleList.toArray(new String[0]);
+    this.attendeeSets = setList.toArray(new AttendeeSet[0]);
+  }
+
+  /**
+   * Returns the number of events in the table.
+   */
+  public int size() {
+    return startColumn.length;
+  }
+
+  /**
+   * Returns the number of distinct titles in the table.
+   */
+  public int titleCount() {
+    return titles.length;
+  }
+
+  /**
+   * Returns the number of distinct attendee sets in the table.
+   */
+  public int attendeeSetCount() {
+    return attendeeSets.length;
+  }
+
+  /**
+   * Returns a view of the event in row {@code row}.
+   */
+  public Event get(int row) {
+    return new Event(titles[titleColumn[row]],
+        TimeRange.fromStartDuration(startColumn[row], durationColumn[row]),
+        attendeeSets[attendeeSetColumn[row]]);
+  }
+
+  /**
+   * Returns a read-only list of views of the events of the table, in order.
+   */
+  public List<Event> asList() {
+    return new AbstractList<Event>() {
+      @Override
+      public Event get(int row) {
+        return EventTable.this.get(row);
+      }
+
+      @Override
+      public int size() {
+        return EventTable.this.size();
+      }
+    };
+  }
+
+  /**
+   * Returns the start column. The array must not be modified.
+   */
+  int[] starts() {
+    return startColumn;
+  }
+
+  /**
+   * Returns the duration column. The array must not be modified.
+   */
+  int[] durations() {
+    return durationColumn;
+  }
+
+  /**
+   * Returns the attendee set column, holding indexes into {@code attendeeSetIds}. The array must
+   * not be modified.
+   */
+  int[] attendeeSetColumn() {
+    return attendeeSetColumn;
+  }
+
+  /**
+   * Returns the sorted attendee ids of distinct attendee set {@code set}. The array must not be
+   * modified.
+   */
+  int[] attendeeSetIds(int set) {
+    return attendeeSets[set].ids();
+  }
+
+  /** An {@code int[]} compared by content, to find attendee sets that were already stored. */
+  private static final class IdsKey {
+    final int[] ids;
+
+    IdsKey(int[] ids) {
+      this.ids = ids;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof IdsKey && Arrays.equals(ids, ((IdsKey) other).ids);
+    }
+
+    @Override
+    public int hashCode() {
+      return Arrays.hashCode(ids);
+    }
+  }
+}
@@ -15,12 +15,759 @@
 package com.google.sps;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.ListIterator;
 
 public final class FindMeetingQuery {
+  /**
+   * The algorithms that can be used to answer a query. They return the same slots for the same
+   * events and request.
+   */
+  public enum Engine {
+    /**
+     * Starts from the whole day and splits the list of available slots for every relevant event.
+     * Costs O(events * slots).
+     */
+    ITERATIVE,
+
+    /**
+     * Sorts the busy ranges of the relevant events by start once, merges the overlapping ones and
+     * emits the gaps between them in a single pass. Costs O(events * log(events)).
+     */
+    SWEEP,
+
+    /**
+     * Same algorithm as {@code SWEEP}, run by {@code FreeSlots} over primitive arrays of the busy
+     * ranges instead of lists of {@code TimeRange}s.
+     */
+    PRIMITIVE
+  }
+
+  // Whether the attendee sets of an {@code EventTable} concern a request.
+  private static final byte REQUIRED_SET = 1;
+  private static final byte OPTIONAL_SET = 2;
+
+  private final Engine engine;
+
+  public FindMeetingQuery() {
+    this(Engine.SWEEP);
+  }
+
+  public FindMeetingQuery(Engine engine) {
+    if (engine == null) {
+      throw new IllegalArgumentException("engine cannot be null");
+    }
+    this.engine = engine;
+  }
+
+  /**
+   * Returns the slots of the day where the required and the optional attendees of {@code request}
+   * are all free. If there are no such slots, returns the slots where only the required attendees
+   * are free. If the request has a limit, only that many slots are returned, as by
+   * {@code query(Collection, MeetingRequest, int)}.
+   */
   public Collection<TimeRange> query(Collection<Event> events, MeetingRequest request) {
+    if (request.getLimit() > 0) {
+      return query(events, request, request.getLimit());
+    }
+    switch (engine) {
+      case SWEEP:
+        return querySweep(events, request);
+      case PRIMITIVE:
+        return queryPrimitive(events, request);
+      default:
+        return queryIterative(events, request);
+    }
+  }
+
+  /**
+   * Same as {@code query(Collection, MeetingRequest)}, also adding to {@code stats} the number of
+   * events looked at, how many of them concern the request, the size of the merged busy lists and
+   * the number of slots returned. The sweep algorithm is used whatever the engine, so that these
+   * counts mean the same thing for every query.
+   */
+  public Collection<TimeRange> query(
+      Collection<Event> events, MeetingRequest request, QueryStats stats) {
+    if (stats == null) {
+      throw new IllegalArgumentException("stats cannot be null");
+    }
+
+    List<TimeRange> slots = new ArrayList<>();
+    if (request.getDuration() <= TimeRange.WHOLE_DAY.duration()) {
+      slots = limit(sweep(events, request, TimeRange.WHOLE_DAY, stats), request.getLimit());
+    }
+    stats.setSlotsReturned(slots.size());
+    return slots;
+  }
+
+  /**
+   * Same as {@code query(Collection, MeetingRequest)}, but only looks at the one-off events in
+   * {@code index} of the required and optional attendees of {@code request}.
+   */
+  public Collection<TimeRange> query(EventIndex index, MeetingRequest request) {
+    List<String> people = new ArrayList<>(request.getAttendees());
+    people.addAll(request.getOptionalAttendees());
+    return query(index.getEvents(people), request);
+  }
+
+  /**
+   * Same as {@code query(Collection, MeetingRequest)} for day {@code day}, counted in days since
+   * the epoch, where the attendees are also busy with the occurrences of {@code recurring} on that
+   * day. Only that day's occurrences are computed.
+   */
+  public Collection<TimeRange> query(Collection<Event> events,
+      Collection<RecurringEvent> recurring, long day, MeetingRequest request) {
+    List<Event> all = RecurringEvent.occurrencesOn(recurring, day);
+    all.addAll(events);
+    return query(all, request);
+  }
+
+  /**
+   * Same as {@code query(EventIndex, MeetingRequest)} for day {@code day}, also looking at the
+   * occurrences on that day of the recurring events in {@code index}.
+   */
+  public Collection<TimeRange> query(EventIndex index, long day, MeetingRequest request) {
+    List<String> people = new ArrayList<>(request.getAttendees());
+    people.addAll(request.getOptionalAttendees());
+    return query(index.getEvents(people, day), request);
+  }
+
+  /**
+   * Same as {@code query(Collection, MeetingRequest)} over the events of {@code table}, read
+   * straight from its columns. Whether an attendee set concerns the request is worked out once
+   * per distinct set rather than once per event, and no {@code Event} is created.
+   */
+  public Collection<TimeRange> query(EventTable table, MeetingRequest request) {
+    if (request.getDuration() > TimeRange.WHOLE_DAY.duration()) {
+      return new ArrayList<>();
+    }
+    int[] attendees = request.getAttendeeIds();
+    int[] optionalAttendees = request.getOptionalAttendeeIds();
+
+    byte[] kinds = new byte[table.attendeeSetCount()];
+    for (int set = 0; set < kinds.length; set++) {
+      int[] ids = table.attendeeSetIds(set);
+      if (AttendeeDictionary.intersects(ids, attendees)) {
+        kinds[set] = REQUIRED_SET;
+      } else if (AttendeeDictionary.intersects(ids, optionalAttendees)) {
+        kinds[set] = OPTIONAL_SET;
+      }
+    }
+
+    // Same layout as the primitive engine: required ranges from the front, optional ones from the
+    // back.
+    int[] starts = table.starts();
+    int[] durations = table.durations();
+    int[] setColumn = table.attendeeSetColumn();
+    int rows = table.size();
+    int[] busyStarts = new int[rows];
+    int[] busyEnds = new int[rows];
+    int requiredCount = 0;
+    int optionalStart = rows;
+    for (int row = 0; row < rows; row++) {
+      byte kind = kinds[setColumn[row]];
+      if (kind == REQUIRED_SET) {
+        busyStarts[requiredCount] = starts[row];
+        busyEnds[requiredCount] = starts[row] + durations[row];
+        requiredCount++;
+      } else if (kind == OPTIONAL_SET) {
+        optionalStart--;
+        busyStarts[optionalStart] = starts[row];
+        busyEnds[optionalStart] = starts[row] + durations[row];
+      }
+    }
+
+    int[] out = new int[FreeSlots.bufferSize(rows)];
+    if (optionalStart < rows) {
+      int count = requiredCount;
+      for (int i = optionalStart; i < rows; i++) {
+        busyStarts[count] = busyStarts[i];
+        busyEnds[count] = busyEnds[i];
+        count++;
+      }
+      int[] requiredStarts = Arrays.copyOf(busyStarts, requiredCount);
+      int[] requiredEnds = Arrays.copyOf(busyEnds, requiredCount);
+      int slots = FreeSlots.find(busyStarts, busyEnds, count, request.getDuration(), out);
+      if (slots > 0) {
+        return limit(FreeSlots.toTimeRanges(out, slots), request.getLimit());
+      }
+      busyStarts = requiredStarts;
+      busyEnds = requiredEnds;
+    }
+    int slots = FreeSlots.find(busyStarts, busyEnds, requiredCount, request.getDuration(), out);
+    return limit(FreeSlots.toTimeRanges(out, slots), request.getLimit());
+  }
+
+  /**
+   * Returns the slots inside {@code window} where the attendees of {@code request} are free, with
+   * the same required and optional rules as {@code query(Collection, MeetingRequest)}. Only the
+   * events of {@code tree} that overlap the window are looked at, and the sweep algorithm is used
+   * whatever the engine.
+   */
+  public Collection<TimeRange> query(
+      EventIntervalTree tree, MeetingRequest request, TimeRange window) {
+    if (request.getLimit() > 0) {
+      return query(tree, request, window, request.getLimit());
+    }
+    if (request.getDuration() > window.duration()) {
+      return new ArrayList<>();
+    }
+    return sweep(tree.overlapping(window), request, window);
+  }
+
+  /**
+   * Returns the {@code limit} earliest slots of {@code query(Collection, MeetingRequest)}, or all
+   * of them if there are fewer. The relevant events are swept in start order and the sweep stops
+   * as soon as enough slots are found, whatever the engine.
+   */
+  public Collection<TimeRange> query(Collection<Event> events, MeetingRequest request, int limit) {
+    checkLimit(limit);
+    if (request.getDuration() > TimeRange.WHOLE_DAY.duration()) {
+      return new ArrayList<>();
+    }
+    int[] attendees = request.getAttendeeIds();
+    int[] optionalAttendees = request.getOptionalAttendeeIds();
+
+    // Each relevant range is packed as (start << 32 | end << 1 | required) so that sorting the
+    // longs sorts the ranges by start.
+    long[] ranges = new long[events.size()];
+    int count = 0;
+    for (Event event : events) {
+      TimeRange when = event.getWhen();
+      if (when.duration() <= 0) {
+        continue;
+      }
+      boolean required = containsAttendee(attendees, event);
+      if (required || containsAttendee(optionalAttendees, event)) {
+        ranges[count++] = ((long) when.start() << 32) | ((long) when.end() << 1) | (required ? 1 : 0);
+      }
+    }
+    Arrays.sort(ranges, 0, count);
+
+    FirstFit requiredFit = new FirstFit(TimeRange.WHOLE_DAY, request.getDuration(), limit);
+    FirstFit allFit = new FirstFit(TimeRange.WHOLE_DAY, request.getDuration(), limit);
+    for (int i = 0; i < count && !allFit.isFull(); i++) {
+      int start = (int) (ranges[i] >>> 32);
+      int end = (int) ranges[i] >>> 1;
+      allFit.addBusy(start, end);
+      if ((ranges[i] & 1) != 0) {
+        requiredFit.addBusy(start, end);
+      }
+    }
+    return answer(requiredFit, allFit);
+  }
+
+  /**
+   * Returns the {@code limit} earliest slots of {@code query(EventIntervalTree, MeetingRequest,
+   * TimeRange)}, or all of them if there are fewer. The events of the tree are already sorted by
+   * start, so the sweep never looks at the events after the last slot it returns.
+   */
+  public Collection<TimeRange> query(
+      EventIntervalTree tree, MeetingRequest request, TimeRange window, int limit) {
+    checkLimit(limit);
+    return sweepInStartOrder(tree.byStart().iterator(), request, window, limit);
+  }
+
+  /**
+   * Returns the same slots as {@code query(Collection, MeetingRequest)} for events read one by one
+   * from {@code eventsByStart}, which must return them ordered by start time. Only the current end
+   * of the busy times is kept besides the answer, so the events never need to all be in memory,
+   * for example when they come from a file or a datastore cursor. If the request has a limit,
+   * reading stops once enough slots are found.
+   *
+   * @throws IllegalArgumentException if an event starts before the one read before it.
+   */
+  public Collection<TimeRange> query(Iterator<Event> eventsByStart, MeetingRequest request) {
+    int limit = request.getLimit() > 0 ? request.getLimit() : Integer.MAX_VALUE;
+    return sweepInStartOrder(eventsByStart, request, TimeRange.WHOLE_DAY, limit);
+  }
+
+  private Collection<TimeRange> sweepInStartOrder(
+      Iterator<Event> eventsByStart, MeetingRequest request, TimeRange window, int limit) {
+    if (request.getDuration() > window.duration()) {
+      return new ArrayList<>();
+    }
+    int[] attendees = request.getAttendeeIds();
+    int[] optionalAttendees = request.getOptionalAttendeeIds();
+
+    FirstFit requiredFit = new FirstFit(window, request.getDuration(), limit);
+    FirstFit allFit = new FirstFit(window, request.getDuration(), limit);
+    int previousStart = Integer.MIN_VALUE;
+    while (!allFit.isFull() && eventsByStart.hasNext()) {
+      Event event = eventsByStart.next();
+      TimeRange when = event.getWhen();
+      if (when.start() < previousStart) {
+        throw new IllegalArgumentException("events must be ordered by start time");
+      }
+      previousStart = when.start();
+      if (when.start() >= window.end()) {
+        break;
+      }
+      // Ranges ending before both cursors change nothing, so their attendees are not even checked.
+      if (when.duration() <= 0 || when.end() <= requiredFit.cursor) {
+        continue;
+      }
+      if (containsAttendee(attendees, event)) {
+        requiredFit.addBusy(when.start(), when.end());
+        allFit.addBusy(when.start(), when.end());
+      } else if (containsAttendee(optionalAttendees, event)) {
+        allFit.addBusy(when.start(), when.end());
+      }
+    }
+    return answer(requiredFit, allFit);
+  }
+
+  private static void checkLimit(int limit) {
+    if (limit <= 0) {
+      throw new IllegalArgumentException("limit must be positive");
+    }
+  }
+
+  /**
+   * Returns the slots found with every attendee, or with the required attendees only if there are
+   * none, the same way {@code slotsFor} chooses.
+   */
+  private static List<TimeRange> answer(FirstFit requiredFit, FirstFit allFit) {
+    List<TimeRange> allSlots = allFit.finish();
+    return allSlots.isEmpty() ? requiredFit.finish() : allSlots;
+  }
+
+  /**
+   * Returns at most the {@code limit} first slots of {@code slots}, or all of them if
+   * {@code limit} is 0.
+   */
+  static List<TimeRange> limit(List<TimeRange> slots, int limit) {
+    return limit > 0 && slots.size() > limit ? new ArrayList<>(slots.subList(0, limit)) : slots;
+  }
+
+  /**
+   * Finds the earliest free slots of a window given busy ranges in start order. Once the limit is
+   * reached, further busy ranges are ignored.
+   */
+  private static final class FirstFit {
+    private final int windowEnd;
+    private final long duration;
+    private final int limit;
+    private final List<TimeRange> slots = new ArrayList<>();
+    // Every minute of the window before the cursor is busy or already looked at.
+    private int cursor;
+
+    FirstFit(TimeRange window, long duration, int limit) {
+      this.windowEnd = window.end();
+      this.duration = duration;
+      this.limit = limit;
+      this.cursor = window.start();
+    }
+
+    boolean isFull() {
+      return slots.size() >= limit;
+    }
+
+    void addBusy(int start, int end) {
+      if (isFull()) {
+        return;
+      }
+      addSlot(Math.min(start, windowEnd));
+      cursor = Math.max(cursor, end);
+    }
+
+    List<TimeRange> finish() {
+      if (!isFull()) {
+        addSlot(windowEnd);
+      }
+      return slots;
+    }
+
+    private void addSlot(int end) {
+      if (end > cursor && end - cursor >= duration) {
+        slots.add(TimeRange.fromStartEnd(cursor, end, false));
+      }
+    }
+  }
+
+  /**
+   * Returns the slots where all the required attendees of {@code request} and as many of its
+   * optional attendees as possible are free, along with how many optional attendees that is.
+   * Unlike {@code query}, a single optional attendee who is never free does not make the others be
+   * ignored. The same optional attendees are free for the whole of each slot; slots where
+   * different attendees are free may overlap.
+   *
+   * <p>The sweep runs over meeting start times rather than over the day. Each free gap of an
+   * attendee that is long enough for the meeting becomes the range of starts for which they are
+   * free for the whole meeting, and one sweep over the sorted ends of these ranges counts how many
+   * optional attendees are free at every start.
+   */
+  public List<MeetingOption> queryMaximizingOptional(
+      Collection<Event> events, MeetingRequest request) {
+    List<MeetingOption> options = new ArrayList<>();
+    long duration = request.getDuration();
+    if (duration > TimeRange.WHOLE_DAY.duration()) {
+      return options;
+    }
+    int[] attendees = request.getAttendeeIds();
+    int[] optionalAttendees = request.getOptionalAttendeeIds();
+    int optionalCount = request.getOptionalAttendees().size();
+
+    // Busy times are kept per person, so that each optional attendee is only counted as free where
+    // they are free for the whole meeting.
+    List<TimeRange> requiredBusy = new ArrayList<>();
+    Map<Integer, List<TimeRange>> optionalBusy = new HashMap<>();
+    for (Event event : events) {
+      if (containsAttendee(attendees, event)) {
+        requiredBusy.add(event.getWhen());
+        continue;
+      }
+      int[] eventAttendees = event.attendeeIds();
+      for (int i = 0, j = 0; i < eventAttendees.length && j < optionalAttendees.length; ) {
+        if (eventAttendees[i] < optionalAttendees[j]) {
+          i++;
+        } else if (eventAttendees[i] > optionalAttendees[j]) {
+          j++;
+        } else {
+          List<TimeRange> busy = optionalBusy.get(eventAttendees[i]);
+          if (busy == null) {
+            busy = new ArrayList<>();
+            optionalBusy.put(eventAttendees[i], busy);
+          }
+          busy.add(event.getWhen());
+          i++;
+          j++;
+        }
+      }
+    }
+
+    // Each boundary is packed as (start minute << 32 | change in free count) so that sorting the
+    // longs sorts the boundaries by minute. The required attendees count as more than every
+    // optional attendee, so that only starts where they are all free reach that count.
+    int required = optionalCount + 1;
+    List<Long> boundaries = new ArrayList<>();
+    addStartBoundaries(boundaries, TimeRanges.merge(requiredBusy), duration, required);
+    for (List<TimeRange> busy : optionalBusy.values()) {
+      addStartBoundaries(boundaries, TimeRanges.merge(busy), duration, 1);
+    }
+    long[] sorted = new long[boundaries.size()];
+    for (int i = 0; i < sorted.length; i++) {
+      sorted[i] = boundaries.get(i);
+    }
+    Arrays.sort(sorted);
+
+    // Cut the possible starts into segments where the same people are free. Optional attendees
+    // without any event are free at every start.
+    int[] segmentStarts = new int[sorted.length];
+    int[] segmentEnds = new int[sorted.length];
+    int[] segmentCounts = new int[sorted.length];
+    int segments = 0;
+    int cursor = TimeRange.WHOLE_DAY.start();
+    int freeCount = optionalCount - optionalBusy.size();
+    int best = -1;
+    for (long boundary : sorted) {
+      int minute = (int) (boundary >> 32);
+      if (minute > cursor && freeCount >= required) {
+        segmentStarts[segments] = cursor;
+        segmentEnds[segments] = minute;
+        segmentCounts[segments] = freeCount - required;
+        best = Math.max(best, freeCount - required);
+        segments++;
+      }
+      cursor = minute;
+      freeCount += (int) boundary;
+    }
+
+    for (int i = 0; i < segments; i++) {
+      if (segmentCounts[i] == best) {
+        // Starting anywhere in [start, end) the meeting ends by end - 1 + duration.
+        options.add(new MeetingOption(TimeRange.fromStartEnd(
+            segmentStarts[i], segmentEnds[i] - 1 + (int) duration, false), best));
+      }
+    }
+    return options;
+  }
+
+  /**
+   * Adds the boundaries of the ranges of meeting starts for which someone with the busy list
+   * {@code busy} is free for the whole meeting.
+   */
+  private static void addStartBoundaries(
+      List<Long> boundaries, List<TimeRange> busy, long duration, int weight) {
+    for (TimeRange gap : TimeRanges.freeSlots(busy, duration)) {
+      long lastStart = gap.end() - duration;
+      boundaries.add(((long) gap.start() << 32) | (weight & 0xffffffffL));
+      boundaries.add(((lastStart + 1) << 32) | (-weight & 0xffffffffL));
+    }
+  }
+
+  /**
+   * Returns the slots where the attendees of {@code request} are free, each paired with a room of
+   * {@code rooms} that seats the headcount of the request and is free for the whole slot. Optional
+   * attendees follow the same rules as {@code query(Collection, MeetingRequest)}, with rooms taken
+   * into account. When only the required attendees can make it, rooms only need to seat them,
+   * unless the request has an explicit headcount. Options are ordered by start, then from the
+   * smallest room to the largest, and are limited like {@code query} if the request has a limit.
+   *
+   * <p>The busy list of the attendees is computed once. Each room then costs a linear merge of
+   * that list with its own bookings, so the cost grows with the number of rooms times the number
+   * of busy ranges of the attendees.
+   */
+  public List<RoomOption> queryWithRooms(
+      Collection<Event> events, Collection<Room> rooms, MeetingRequest request) {
+    if (request.getDuration() > TimeRange.WHOLE_DAY.duration()) {
+      return new ArrayList<>();
+    }
+    List<Room> candidates = new ArrayList<>(rooms);
+    Collections.sort(candidates, new Comparator<Room>() {
+      @Override
+      public int compare(Room a, Room b) {
+        return Integer.compare(a.getCapacity(), b.getCapacity());
+      }
+    });
+
+    int[] attendees = request.getAttendeeIds();
+    int[] optionalAttendees = request.getOptionalAttendeeIds();
+    List<TimeRange> requiredBusy = new ArrayList<>();
+    List<TimeRange> optionalBusy = new ArrayList<>();
+    for (Event event : events) {
+      if (containsAttendee(attendees, event)) {
+        requiredBusy.add(event.getWhen());
+      } else if (containsAttendee(optionalAttendees, event)) {
+        optionalBusy.add(event.getWhen());
+      }
+    }
+    requiredBusy = TimeRanges.merge(requiredBusy);
+
+    // Optional attendees without any event are free all day, so they always come.
+    if (optionalBusy.isEmpty()) {
+      return roomOptions(requiredBusy, candidates, request, request.getHeadcount(true));
+    }
+    List<RoomOption> options = roomOptions(TimeRanges.union(requiredBusy,
+        TimeRanges.merge(optionalBusy)), candidates, request, request.getHeadcount(true));
+    if (!options.isEmpty()) {
+      return options;
+    }
+    return roomOptions(requiredBusy, candidates, request, request.getHeadcount(false));
+  }
+
+  /**
+   * Returns the options of the rooms of {@code rooms}, sorted by capacity, that seat
+   * {@code headcount} people.
+   */
+  private static List<RoomOption> roomOptions(
+      List<TimeRange> peopleBusy, List<Room> rooms, MeetingRequest request, int headcount) {
+    List<RoomOption> options = new ArrayList<>();
+    for (Room room : rooms) {
+      if (room.getCapacity() < headcount) {
+        continue;
+      }
+      List<TimeRange> busy = TimeRanges.union(peopleBusy, room.getBusy());
+      for (TimeRange slot : TimeRanges.freeSlots(busy, request.getDuration())) {
+        options.add(new RoomOption(slot, room));
+      }
+    }
+    // The sort is stable, so options starting together stay ordered by room size.
+    Collections.sort(options, new Comparator<RoomOption>() {
+      @Override
+      public int compare(RoomOption a, RoomOption b) {
+        return TimeRange.ORDER_BY_START.compare(a.getWhen(), b.getWhen());
+      }
+    });
+    if (request.getLimit() > 0 && options.size() > request.getLimit()) {
+      return new ArrayList<>(options.subList(0, request.getLimit()));
+    }
+    return options;
+  }
+
+  /**
+   * Answers every request of {@code requests} against {@code events}, in order. The result of each
+   * request is the same as {@code query(Collection, MeetingRequest)}.
+   */
+  public List<Collection<TimeRange>> queryBatch(
+      Collection<Event> events, List<MeetingRequest> requests) {
+    return queryBatch(new EventIndex(events), requests);
+  }
+
+  /**
+   * Answers every request of {@code requests} against the events of {@code index}, in order. The
+   * merged busy list of each attendee is computed once and shared by all requests of the batch, so
+   * asking for the same people with several durations or subsets costs little more than asking
+   * once.
+   */
+  public List<Collection<TimeRange>> queryBatch(EventIndex index, List<MeetingRequest> requests) {
+    Map<String, List<TimeRange>> busyByAttendee = new HashMap<>();
+    List<Collection<TimeRange>> answers = new ArrayList<>(requests.size());
+    for (MeetingRequest request : requests) {
+      if (request.getDuration() > TimeRange.WHOLE_DAY.duration()) {
+        answers.add(new ArrayList<TimeRange>());
+        continue;
+      }
+      List<TimeRange> requiredBusy = busyOf(request.getAttendees(), index, busyByAttendee);
+      List<TimeRange> optionalBusy = busyOf(request.getOptionalAttendees(), index, busyByAttendee);
+      answers.add(
+          limit(slotsFor(requiredBusy, optionalBusy, request.getDuration()), request.getLimit()));
+    }
+    return answers;
+  }
+
+  /**
+   * Returns the slots of the day that are free in both busy lists {@code requiredBusy} and
+   * {@code optionalBusy}, or the slots free in {@code requiredBusy} if there are none. This is how
+   * every engine treats optional attendees.
+   */
+  static List<TimeRange> slotsFor(
+      List<TimeRange> requiredBusy, List<TimeRange> optionalBusy, long duration) {
+    return slotsFor(requiredBusy, optionalBusy, duration, null);
+  }
+
+  /**
+   * Same as {@code slotsFor(List, List, long)}, also adding the sizes of the busy lists searched to
+   * {@code stats} unless it is null.
+   */
+  static List<TimeRange> slotsFor(List<TimeRange> requiredBusy, List<TimeRange> optionalBusy,
+      long duration, QueryStats stats) {
+    if (stats != null) {
+      stats.addBusyRanges(requiredBusy.size());
+    }
+    List<TimeRange> requiredSlots = TimeRanges.freeSlots(requiredBusy, duration);
+    if (optionalBusy.isEmpty()) {
+      return requiredSlots;
+    }
+    List<TimeRange> allBusy = TimeRanges.union(requiredBusy, optionalBusy);
+    if (stats != null) {
+      stats.addBusyRanges(allBusy.size());
+    }
+    List<TimeRange> optionalSlots = TimeRanges.freeSlots(allBusy, duration);
+    return optionalSlots.isEmpty() ? requiredSlots : optionalSlots;
+  }
+
+  /**
+   * Returns the busy list of all of {@code attendees}, computing and remembering the busy list of
+   * each attendee the first time it is needed.
+   */
+  private static List<TimeRange> busyOf(Collection<String> attendees, EventIndex index,
+      Map<String, List<TimeRange>> busyByAttendee) {
+    List<TimeRange> busy = new ArrayList<>();
+    for (String attendee : attendees) {
+      List<TimeRange> attendeeBusy = busyByAttendee.get(attendee);
+      if (attendeeBusy == null) {
+        List<TimeRange> ranges = new ArrayList<>();
+        for (Event event : index.getEvents(attendee)) {
+          ranges.add(event.getWhen());
+        }
+        attendeeBusy = TimeRanges.merge(ranges);
+        busyByAttendee.put(attendee, attendeeBusy);
+      }
+      busy = TimeRanges.union(busy, attendeeBusy);
+    }
+    return busy;
+  }
+
+  private Collection<TimeRange> querySweep(Collection<Event> events, MeetingRequest request) {
+    if (request.getDuration() > TimeRange.WHOLE_DAY.duration()) {
+      return new ArrayList<>();
+    }
+    return sweep(events, request, TimeRange.WHOLE_DAY);
+  }
+
+  private List<TimeRange> sweep(
+      Collection<Event> events, MeetingRequest request, TimeRange window) {
+    return sweep(events, request, window, null);
+  }
+
+  /**
+   * Sweeps {@code events} for the free slots of {@code window}, adding what was looked at to
+   * {@code stats} unless it is null.
+   */
+  private List<TimeRange> sweep(
+      Collection<Event> events, MeetingRequest request, TimeRange window, QueryStats stats) {
+    int[] attendees = request.getAttendeeIds();
+    int[] optionalAttendees = request.getOptionalAttendeeIds();
+    List<TimeRange> requiredBusy = new ArrayList<>();
+    List<TimeRange> optionalBusy = new ArrayList<>();
+    for (Event event : events) {
+      if (containsAttendee(attendees, event)) {
+        requiredBusy.add(event.getWhen());
+      } else if (containsAttendee(optionalAttendees, event)) {
+        optionalBusy.add(event.getWhen());
+      }
+    }
+    if (stats != null) {
+      stats.addEventsScanned(events.size());
+      stats.addEventsMatched(requiredBusy.size() + optionalBusy.size());
+    }
+
+    List<TimeRange> requiredMerged = TimeRanges.merge(requiredBusy);
+    if (stats != null) {
+      stats.addBusyRanges(requiredMerged.size());
+    }
+    List<TimeRange> requiredSlots =
+        TimeRanges.freeSlots(requiredMerged, window, request.getDuration());
+    if (optionalBusy.isEmpty()) {
+      return requiredSlots;
+    }
+    optionalBusy.addAll(requiredBusy);
+    List<TimeRange> optionalMerged = TimeRanges.merge(optionalBusy);
+    if (stats != null) {
+      stats.addBusyRanges(optionalMerged.size());
+    }
+    List<TimeRange> optionalSlots =
+        TimeRanges.freeSlots(optionalMerged, window, request.getDuration());
+    return optionalSlots.isEmpty() ? requiredSlots : optionalSlots;
+  }
+
+  private Collection<TimeRange> queryPrimitive(Collection<Event> events, MeetingRequest request) {
+    if (request.getDuration() > TimeRange.WHOLE_DAY.duration()) {
+      return new ArrayList<>();
+    }
+    int[] attendees = request.getAttendeeIds();
+    int[] optionalAttendees = request.getOptionalAttendeeIds();
+
+    // Required ranges fill the arrays from the front and optional ones from the back, so that the
+    // required-only and the required-and-optional queries can share the same arrays.
+    int[] starts = new int[events.size()];
+    int[] ends = new int[events.size()];
+    int required = 0;
+    int optional = events.size();
+    for (Event event : events) {
+      TimeRange when = event.getWhen();
+      if (containsAttendee(attendees, event)) {
+        starts[required] = when.start();
+        ends[required] = when.end();
+        required++;
+      } else if (containsAttendee(optionalAttendees, event)) {
+        optional--;
+        starts[optional] = when.start();
+        ends[optional] = when.end();
+      }
+    }
+
+    int[] out = new int[FreeSlots.bufferSize(events.size())];
+    if (optional < events.size()) {
+      // Move the optional ranges right after the required ones before the search reorders them.
+      int count = required;
+      for (int i = optional; i < events.size(); i++) {
+        starts[count] = starts[i];
+        ends[count] = ends[i];
+        count++;
+      }
+      int[] requiredStarts = Arrays.copyOf(starts, required);
+      int[] requiredEnds = Arrays.copyOf(ends, required);
+      int slots = FreeSlots.find(starts, ends, count, request.getDuration(), out);
+      if (slots > 0) {
+        return FreeSlots.toTimeRanges(out, slots);
+      }
+      starts = requiredStarts;
+      ends = requiredEnds;
+    }
+    int slots = FreeSlots.find(starts, ends, required, request.getDuration(), out);
+    return FreeSlots.toTimeRanges(out, slots);
+  }
+
+  private Collection<TimeRange> queryIterative(Collection<Event> events, MeetingRequest request) {
     List<TimeRange> availableSlots = new ArrayList<>();
     if (request.getDuration() > TimeRange.WHOLE_DAY.duration()) {
       return availableSlots;
@@ -29,11 +776,15 @@ public final class FindMeetingQuery {
     availableSlots.add(TimeRange.WHOLE_DAY);
     availableSlotsOptional.add(TimeRange.WHOLE_DAY);
 
-    Collection<String> attendees = request.getAttendees();
-    Collection<String> optionalAttendees = request.getOptionalAttendees();
+    int[] attendees = request.getAttendeeIds();
+    int[] optionalAttendees = request.getOptionalAttendeeIds();
     long requiredDuration = request.getDuration();
     for (Event event : events) {
       TimeRange eventTimeRange = event.getWhen();
+      // An event with no duration does not block any minute, as in {@code TimeRanges.merge}.
+      if (eventTimeRange.duration() <= 0) {
+        continue;
+      }
       boolean containsAttendee = containsAttendee(attendees, event);
       boolean containsOptionalAttendee = containsAttendee(optionalAttendees, event);
       if (!containsAttendee && !containsOptionalAttendee) {
@@ -74,12 +825,11 @@ public final class FindMeetingQuery {
   }
 
   /**
-   * Returns true if the event contains at least one of the attendees,
+   * Returns true if the event contains at least one of the attendees, given as sorted ids,
    * otherwise false.
    */
-  private boolean containsAttendee(Collection<String> attendees, Event event) {
-    return attendees.stream()
-            .anyMatch((attendee) -> event.getAttendees().contains(attendee));
+  private boolean containsAttendee(int[] attendees, Event event) {
+    return event.attendedByAny(attendees);
   }
 
   /**
@@ -0,0 +1,116 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Primitive free-slot search for hot callers. Busy ranges are passed as parallel {@code int[]}s of
+ * start and end minutes, and slots are written into a caller-supplied buffer, so a query creates no
+ * objects.
+ */
+public final class FreeSlots {
+  private FreeSlots() {
+    // Disallow instances.
+  }
+
+  /**
+   * Returns the minimum length of the output buffer of {@code find} for {@code count} busy ranges.
+   */
+  public static int bufferSize(int count) {
+    return 2 * (count + 1);
+  }
+
+  /**
+   * Finds the gaps of the whole day that are not covered by any of the busy ranges
+   * {@code [starts[i], ends[i])} for {@code i < count} and that last at least {@code minDuration}
+   * minutes. Slot {@code k} is written to {@code out[2 * k]} (start) and {@code out[2 * k + 1]}
+   * (exclusive end), in ascending order.
+   *
+   * <p>{@code starts} and {@code ends} are used as scratch space: their first {@code count} values
+   * are reordered and no longer pair up once this returns.
+   *
+   * @return The number of slots written to {@code out}.
+   */
+  public static int find(int[] starts, int[] ends, int count, long minDuration, int[] out) {
+    if (count < 0 || count > starts.length || count > ends.length) {
+      throw new IllegalArgumentException("count must be between 0 and the length of the ranges");
+    }
+    if (out.length < bufferSize(count)) {
+      throw new IllegalArgumentException("out must hold at least bufferSize(count) values");
+    }
+
+    // Ranges with no duration do not block any minute.
+    int kept = 0;
+    for (int i = 0; i < count; i++) {
+      if (ends[i] > starts[i]) {
+        starts[kept] = starts[i];
+        ends[kept] = ends[i];
+        kept++;
+      }
+    }
+
+    // The union of the ranges only depends on the order of the boundaries, not on which start goes
+    // with which end, so both arrays can be sorted on their own.
+    Arrays.sort(starts, 0, kept);
+    Arrays.sort(ends, 0, kept);
+
+    int slots = 0;
+    int cursor = TimeRange.WHOLE_DAY.start();
+    int active = 0;
+    int nextEnd = 0;
+    for (int nextStart = 0; nextStart < kept; nextStart++) {
+      while (ends[nextEnd] < starts[nextStart]) {
+        active--;
+        if (active == 0) {
+          cursor = Math.max(cursor, ends[nextEnd]);
+        }
+        nextEnd++;
+      }
+      if (active == 0) {
+        slots = addSlot(out, slots, cursor, starts[nextStart], minDuration);
+      }
+      active++;
+    }
+    if (kept > 0) {
+      cursor = Math.max(cursor, ends[kept - 1]);
+    }
+    return addSlot(out, slots, cursor, TimeRange.WHOLE_DAY.end(), minDuration);
+  }
+
+  /**
+   * Converts the first {@code slots} slots written by {@code find} into {@code TimeRange}s.
+   */
+  public static List<TimeRange> toTimeRanges(int[] out, int slots) {
+    List<TimeRange> ranges = new ArrayList<>(slots);
+    for (int i = 0; i < slots; i++) {
+      ranges.add(TimeRange.fromStartEnd(out[2 * i], out[2 * i + 1], false));
+    }
+    return ranges;
+  }
+
+  private static int addSlot(int[] out, int slots, int start, int end, long minDuration) {
+    start = Math.max(start, TimeRange.WHOLE_DAY.start());
+    end = Math.min(end, TimeRange.WHOLE_DAY.end());
+    if (end <= start || end - start < minDuration) {
+      return slots;
+    }
+    out[2 * slots] = start;
+    out[2 * slots + 1] = end;
+    return slots + 1;
+  }
+}
@@ -0,0 +1,119 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Distribution of non-negative values, such as latencies or sizes, in buckets whose bounds are
+ * powers of two. Recording costs a few atomic additions and no allocation. This class is
+ * thread-safe.
+ */
+public final class Histogram {
+  // Bucket i counts the values up to 2^i, and the last one everything larger.
+  private static final int BUCKETS = 40;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS + 1);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+  private final AtomicLong max = new AtomicLong();
+
+  /**
+   * Adds {@code value} to the distribution. Negative values are counted as 0.
+   */
+  public void record(long value) {
+    long clamped = Math.max(0, value);
+    buckets.incrementAndGet(bucketOf(clamped));
+    count.increment();
+    sum.add(clamped);
+    long previous = max.get();
+    while (clamped > previous && !max.compareAndSet(previous, clamped)) {
+      previous = max.get();
+    }
+  }
+
+  /**
+   * Returns the number of recorded values.
+   */
+  public long getCount() {
+    return count.sum();
+  }
+
+  /**
+   * Returns the sum of the recorded values.
+   */
+  public long getSum() {
+    return sum.sum();
+  }
+
+  /**
+   * Returns the largest recorded value, or 0 if there is none.
+   */
+  public long getMax() {
+    return max.get();
+  }
+
+  /**
+   * Returns the number of buckets, the last one holding every value over the bound of the one
+   * before it.
+   */
+  public int getBucketCount() {
+    return BUCKETS + 1;
+  }
+
+  /**
+   * Returns the largest value counted by bucket {@code bucket}, or {@code Long.MAX_VALUE} for the
+   * last bucket.
+   */
+  public long getBucketBound(int bucket) {
+    return bucket < BUCKETS ? 1L << bucket : Long.MAX_VALUE;
+  }
+
+  /**
+   * Returns the number of values counted by bucket {@code bucket}.
+   */
+  public long getBucketValues(int bucket) {
+    return buckets.get(bucket);
+  }
+
+  /**
+   * Returns an upper bound of the {@code percentile} (between 0 and 1) of the recorded values,
+   * which is the bound of the bucket it falls in, or 0 if there are no values.
+   */
+  public long getPercentile(double percentile) {
+    long total = getCount();
+    if (total == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(percentile * total));
+    long seen = 0;
+    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+      seen += buckets.get(bucket);
+      if (seen >= rank) {
+        return Math.min(getBucketBound(bucket), getMax());
+      }
+    }
+    return getMax();
+  }
+
+  private static int bucketOf(long value) {
+    if (value <= 1) {
+      return 0;
+    }
+    return Math.min(Long.SIZE - Long.numberOfLeadingZeros(value - 1), BUCKETS);
+  }
+}
@@ -0,0 +1,207 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Calendar spanning any number of days, where busy times are {@code EpochRange}s. Each attendee's
+ * busy times are kept sorted and merged, so that a query over a window of any length only binary
+ * searches for the window bounds and reads the busy times inside it, instead of running a
+ * single-day query once per day.
+ */
+public final class HorizonCalendar {
+  private final Map<String, Timeline> timelines = new HashMap<>();
+  // Recurring events are kept as they are and expanded only inside the window of each query.
+  private final Map<String, List<RecurringEvent>> recurringByAttendee = new HashMap<>();
+
+  /**
+   * Marks every one of {@code attendees} as busy during {@code when}.
+   */
+  public synchronized void add(EpochRange when, Collection<String> attendees) {
+    for (String attendee : attendees) {
+      Timeline timeline = timelines.get(attendee);
+      if (timeline == null) {
+        timeline = new Timeline();
+        timelines.put(attendee, timeline);
+      }
+      timeline.add(when);
+    }
+  }
+
+  /**
+   * Adds single-day {@code events} that take place on day {@code day}, counted in days since the
+   * epoch.
+   */
+  public synchronized void addEvents(long day, Collection<Event> events) {
+    for (Event event : events) {
+      add(EpochRange.fromTimeRange(day, event.getWhen()), event.getAttendees());
+    }
+  }
+
+  /**
+   * Adds {@code event}, which makes its attendees busy during each of its occurrences.
+   */
+  public synchronized void addRecurring(RecurringEvent event) {
+    for (String attendee : event.getAttendees()) {
+      List<RecurringEvent> recurring = recurringByAttendee.get(attendee);
+      if (recurring == null) {
+        recurring = new ArrayList<>();
+        recurringByAttendee.put(attendee, recurring);
+      }
+      recurring.add(event);
+    }
+  }
+
+  /**
+   * Returns the slots inside {@code window} where the required and the optional attendees of
+   * {@code request} are all free for at least the duration of the request. If there are no such
+   * slots, returns the slots where only the required attendees are free. This matches
+   * {@code FindMeetingQuery.query}, except that the duration may be longer than a day.
+   */
+  public synchronized List<EpochRange> query(MeetingRequest request, EpochRange window) {
+    if (request.getDuration() > window.duration()) {
+      return new ArrayList<>();
+    }
+
+    List<EpochRange> requiredBusy = new ArrayList<>();
+    collectBusy(request.getAttendees(), window, requiredBusy);
+    List<EpochRange> requiredSlots = freeSlots(requiredBusy, window, request.getDuration());
+
+    List<EpochRange> allBusy = new ArrayList<>(requiredBusy);
+    collectBusy(request.getOptionalAttendees(), window, allBusy);
+    if (allBusy.size() == requiredBusy.size()) {
+      return requiredSlots;
+    }
+    List<EpochRange> optionalSlots = freeSlots(allBusy, window, request.getDuration());
+    return optionalSlots.isEmpty() ? requiredSlots : optionalSlots;
+  }
+
+  private void collectBusy(
+      Collection<String> attendees, EpochRange window, List<EpochRange> busy) {
+    for (String attendee : attendees) {
+      Timeline timeline = timelines.get(attendee);
+      if (timeline != null) {
+        timeline.collect(window, busy);
+      }
+      List<RecurringEvent> recurring = recurringByAttendee.get(attendee);
+      if (recurring != null) {
+        for (RecurringEvent event : recurring) {
+          for (EpochRange occurrence : event.occurrences(window)) {
+            busy.add(occurrence);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the gaps of {@code window} that are not covered by any of {@code busy} and that last
+   * at least {@code minDuration} minutes.
+   */
+  private static List<EpochRange> freeSlots(
+      List<EpochRange> busy, EpochRange window, long minDuration) {
+    Collections.sort(busy, EpochRange.ORDER_BY_START);
+    List<EpochRange> slots = new ArrayList<>();
+    long cursor = window.start();
+    for (EpochRange range : busy) {
+      addSlot(slots, cursor, range.start(), minDuration);
+      cursor = Math.max(cursor, range.end());
+    }
+    addSlot(slots, cursor, window.end(), minDuration);
+    return slots;
+  }
+
+  private static void addSlot(List<EpochRange> slots, long start, long end, long minDuration) {
+    if (end > start && end - start >= minDuration) {
+      slots.add(EpochRange.fromStartEnd(start, end));
+    }
+  }
+
+  /**
+   * Busy times of one attendee. Added ranges are merged into sorted arrays of starts and ends the
+   * next time the timeline is read.
+   */
+  private static final class Timeline {
+    private final List<EpochRange> pending = new ArrayList<>();
+    private long[] starts = new long[0];
+    private long[] ends = new long[0];
+
+    void add(EpochRange range) {
+      if (range.duration() > 0) {
+        pending.add(range);
+      }
+    }
+
+    /**
+     * Adds the busy ranges overlapping {@code window} to {@code busy}, clipped to the window.
+     */
+    void collect(EpochRange window, List<EpochRange> busy) {
+      if (!pending.isEmpty()) {
+        rebuild();
+      }
+      // Merged ranges are disjoint, so their ends are sorted like their starts.
+      for (int i = firstEndingAfter(window.start());
+          i < starts.length && starts[i] < window.end(); i++) {
+        busy.add(EpochRange.fromStartEnd(
+            Math.max(starts[i], window.start()), Math.min(ends[i], window.end())));
+      }
+    }
+
+    private int firstEndingAfter(long point) {
+      int low = 0;
+      int high = ends.length;
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+        if (ends[middle] <= point) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+      return low;
+    }
+
+    private void rebuild() {
+      List<EpochRange> ranges = new ArrayList<>(pending);
+      for (int i = 0; i < starts.length; i++) {
+        ranges.add(EpochRange.fromStartEnd(starts[i], ends[i]));
+      }
+      pending.clear();
+      Collections.sort(ranges, EpochRange.ORDER_BY_START);
+
+      long[] mergedStarts = new long[ranges.size()];
+      long[] mergedEnds = new long[ranges.size()];
+      int count = 0;
+      for (EpochRange range : ranges) {
+        if (count > 0 && range.start() <= mergedEnds[count - 1]) {
+          mergedEnds[count - 1] = Math.max(mergedEnds[count - 1], range.end());
+        } else {
+          mergedStarts[count] = range.start();
+          mergedEnds[count] = range.end();
+          count++;
+        }
+      }
+      starts = Arrays.copyOf(mergedStarts, count);
+      ends = Arrays.copyOf(mergedEnds, count);
+    }
+  }
+}
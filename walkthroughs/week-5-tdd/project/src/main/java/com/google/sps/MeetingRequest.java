@@ -39,6 +39,17 @@ public final class MeetingRequest {
   // The duration of the meeting in minutes.
   private final long duration;
 
+  // The number of slots wanted, earliest first, or 0 for all of them.
+  private int limit;
+
+  // The number of seats the meeting room needs, or 0 for one per required and optional attendee.
+  private int headcount;
+
+  // Ids of the attendees in {@code AttendeeDictionary.getDefault()}, computed on first use. They are
+  // transient so that they are not part of the JSON form of the request.
+  private transient int[] attendeeIds;
+  private transient int[] optionalAttendeeIds;
+
   public MeetingRequest(Collection<String> attendees, long duration) {
     this.duration = duration;
     this.attendees.addAll(attendees);
@@ -67,6 +78,78 @@ public final class MeetingRequest {
     }
   }
 
+  /**
+   * Returns the sorted ids of the required attendees in {@code AttendeeDictionary.getDefault()}.
+   * People who do not attend any known event have no id and are left out. The array must not be
+   * modified.
+   */
+  public int[] getAttendeeIds() {
+    // Names without an id are looked up again next time, in case an event made them known since.
+    if (attendeeIds == null || attendeeIds.length < attendees.size()) {
+      attendeeIds = AttendeeDictionary.getDefault().lookup(attendees);
+    }
+    return attendeeIds;
+  }
+
+  /**
+   * Returns the sorted ids of the optional attendees in {@code AttendeeDictionary.getDefault()}.
+   * People who do not attend any known event have no id and are left out. The array must not be
+   * modified.
+   */
+  public int[] getOptionalAttendeeIds() {
+    if (optionalAttendeeIds == null || optionalAttendeeIds.length < optional_attendees.size()) {
+      optionalAttendeeIds = AttendeeDictionary.getDefault().lookup(optional_attendees);
+    }
+    return optionalAttendeeIds;
+  }
+
+  /**
+   * Asks for only the {@code limit} earliest slots, or for all of them if {@code limit} is 0.
+   */
+  public void setLimit(int limit) {
+    if (limit < 0) {
+      throw new IllegalArgumentException("limit cannot be negative");
+    }
+    this.limit = limit;
+  }
+
+  /**
+   * Returns the number of slots wanted, earliest first, or 0 if all of them are.
+   */
+  public int getLimit() {
+    return limit;
+  }
+
+  /**
+   * Sets the number of seats the meeting room needs, or 0 for one per required and optional
+   * attendee.
+   */
+  public void setHeadcount(int headcount) {
+    if (headcount < 0) {
+      throw new IllegalArgumentException("headcount cannot be negative");
+    }
+    this.headcount = headcount;
+  }
+
+  /**
+   * Returns the number of seats the meeting room needs.
+   */
+  public int getHeadcount() {
+    return getHeadcount(true);
+  }
+
+  /**
+   * Returns the number of seats the meeting room needs if the optional attendees come or, when
+   * {@code withOptional} is false, if only the required ones do. A headcount set with
+   * {@code setHeadcount} applies either way.
+   */
+  public int getHeadcount(boolean withOptional) {
+    if (headcount > 0) {
+      return headcount;
+    }
+    return withOptional ? attendees.size() + optional_attendees.size() : attendees.size();
+  }
+
   /**
    * Returns the duration of the meeting in minutes.
    */
@@ -0,0 +1,137 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Event source whose events can be added and removed. Every change increments the version, and
+ * the latest changes are remembered so that the servlets can apply them to what they derived from
+ * the events instead of rebuilding it. This class is thread-safe.
+ */
+public final class MutableEventSource implements EventSource {
+  /** The number of changes remembered by default. */
+  public static final int DEFAULT_HISTORY = 4096;
+
+  private final List<Event> events;
+  private final int history;
+  // The latest changes, oldest first. The last one led to the current version.
+  private final ArrayDeque<Event> changedEvents = new ArrayDeque<>();
+  private final ArrayDeque<Boolean> changeAdded = new ArrayDeque<>();
+  private long version;
+
+  /**
+   * Creates a source holding {@code events} that remembers {@code DEFAULT_HISTORY} changes.
+   */
+  public MutableEventSource(Collection<Event> events) {
+    this(events, DEFAULT_HISTORY);
+  }
+
+  /**
+   * Creates a source holding {@code events} that remembers the latest {@code history} changes.
+   */
+  public MutableEventSource(Collection<Event> events, int history) {
+    if (events == null) {
+      throw new IllegalArgumentException("events cannot be null");
+    }
+
+    if (history < 0) {
+      throw new IllegalArgumentException("history cannot be negative");
+    }
+
+    this.events = new ArrayList<>(events);
+    this.history = history;
+  }
+
+  /**
+   * Adds {@code event}.
+   */
+  public synchronized void add(Event event) {
+    if (event == null) {
+      throw new IllegalArgumentException("event cannot be null");
+    }
+    events.add(event);
+    remember(event, true);
+  }
+
+  /**
+   * Removes one event equal to {@code event}.
+   *
+   * @return True if there was such an event.
+   */
+  public synchronized boolean remove(Event event) {
+    if (!events.remove(event)) {
+      return false;
+    }
+    remember(event, false);
+    return true;
+  }
+
+  /**
+   * Returns a read-only copy of the current events.
+   */
+  @Override
+  public synchronized Collection<Event> getEvents() {
+    return Collections.unmodifiableList(new ArrayList<>(events));
+  }
+
+  /**
+   * Returns the number of changes made since the source was created.
+   */
+  @Override
+  public synchronized long getVersion() {
+    return version;
+  }
+
+  /**
+   * Returns the changes since {@code version}, or null if some of them are no longer remembered.
+   */
+  @Override
+  public synchronized EventChanges getChangesSince(long version) {
+    if (version > this.version || this.version - version > changedEvents.size()) {
+      return null;
+    }
+    int count = (int) (this.version - version);
+    int skip = changedEvents.size() - count;
+    List<Event> changed = new ArrayList<>(count);
+    boolean[] added = new boolean[count];
+    Iterator<Event> eventIterator = changedEvents.iterator();
+    Iterator<Boolean> addedIterator = changeAdded.iterator();
+    for (int i = 0; i < changedEvents.size(); i++) {
+      Event event = eventIterator.next();
+      boolean wasAdded = addedIterator.next();
+      if (i >= skip) {
+        changed.add(event);
+        added[i - skip] = wasAdded;
+      }
+    }
+    return new EventChanges(changed, added, this.version);
+  }
+
+  private void remember(Event event, boolean added) {
+    version++;
+    changedEvents.addLast(event);
+    changeAdded.addLast(added);
+    if (changedEvents.size() > history) {
+      changedEvents.removeFirst();
+      changeAdded.removeFirst();
+    }
+  }
+}
@@ -0,0 +1,151 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Meeting query for large calendars and requests that splits the events into chunks on a
+ * {@code ForkJoinPool}. Each chunk computes its own merged busy lists, and the partial lists are
+ * combined with {@code TimeRanges.union}, which is associative, so the result does not depend on
+ * how the events were split. Calendars with no more events than the threshold are handled on the
+ * calling thread. Results are the same as {@code FindMeetingQuery.query}.
+ */
+public final class ParallelMeetingQuery {
+  /** Default number of events below which a chunk is no longer split. */
+  public static final int DEFAULT_THRESHOLD = 2048;
+
+  private final ForkJoinPool pool;
+  private final int threshold;
+
+  public ParallelMeetingQuery() {
+    this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+  }
+
+  /**
+   * Creates a query running on {@code pool}.
+   *
+   * @param pool The pool running the chunks. Must be non-null.
+   * @param threshold The number of events below which a chunk is no longer split. Must be positive.
+   *     Only events are counted: the size of the request is not, although each event costs more to
+   *     check against a request with many attendees, so callers serving such requests may want a
+   *     lower threshold.
+   */
+  public ParallelMeetingQuery(ForkJoinPool pool, int threshold) {
+    if (pool == null) {
+      throw new IllegalArgumentException("pool cannot be null");
+    }
+
+    if (threshold <= 0) {
+      throw new IllegalArgumentException("threshold must be positive");
+    }
+
+    this.pool = pool;
+    this.threshold = threshold;
+  }
+
+  /**
+   * Returns the same slots as {@code FindMeetingQuery.query(events, request)}.
+   */
+  public Collection<TimeRange> query(Collection<Event> events, MeetingRequest request) {
+    if (request.getDuration() > TimeRange.WHOLE_DAY.duration()) {
+      return new ArrayList<>();
+    }
+
+    Event[] eventArray = events.toArray(new Event[0]);
+    BusyTask task = new BusyTask(eventArray, 0, eventArray.length, request.getAttendeeIds(),
+        request.getOptionalAttendeeIds(), threshold);
+    Busy busy = eventArray.length <= threshold ? task.compute() : pool.invoke(task);
+
+    return FindMeetingQuery.limit(
+        FindMeetingQuery.slotsFor(busy.required, busy.optional, request.getDuration()),
+        request.getLimit());
+  }
+
+  /**
+   * Merged busy lists of the events attended by a required attendee, and of the other events
+   * attended by an optional attendee.
+   */
+  private static final class Busy {
+    final List<TimeRange> required;
+    final List<TimeRange> optional;
+
+    Busy(List<TimeRange> required, List<TimeRange> optional) {
+      this.required = required;
+      this.optional = optional;
+    }
+
+    Busy union(Busy other) {
+      return new Busy(TimeRanges.union(required, other.required),
+          TimeRanges.union(optional, other.optional));
+    }
+  }
+
+  /**
+   * Computes the {@code Busy} lists of {@code events[from, to)}.
+   */
+  private static final class BusyTask extends RecursiveTask<Busy> {
+    private static final long serialVersionUID = 1L;
+
+    private final Event[] events;
+    private final int from;
+    private final int to;
+    private final int[] attendees;
+    private final int[] optionalAttendees;
+    private final int threshold;
+
+    BusyTask(Event[] events, int from, int to, int[] attendees, int[] optionalAttendees,
+        int threshold) {
+      this.events = events;
+      this.from = from;
+      this.to = to;
+      this.attendees = attendees;
+      this.optionalAttendees = optionalAttendees;
+      this.threshold = threshold;
+    }
+
+    @Override
+    protected Busy compute() {
+      if (to - from <= threshold) {
+        return computeDirectly();
+      }
+      int middle = (from + to) >>> 1;
+      BusyTask left =
+          new BusyTask(events, from, middle, attendees, optionalAttendees, threshold);
+      BusyTask right = new BusyTask(events, middle, to, attendees, optionalAttendees, threshold);
+      left.fork();
+      Busy rightBusy = right.compute();
+      return left.join().union(rightBusy);
+    }
+
+    private Busy computeDirectly() {
+      List<TimeRange> required = new ArrayList<>();
+      List<TimeRange> optional = new ArrayList<>();
+      for (int i = from; i < to; i++) {
+        Event event = events[i];
+        if (event.attendedByAny(attendees)) {
+          required.add(event.getWhen());
+        } else if (event.attendedByAny(optionalAttendees)) {
+          optional.add(event.getWhen());
+        }
+      }
+      return new Busy(TimeRanges.merge(required), TimeRanges.merge(optional));
+    }
+  }
+}
@@ -0,0 +1,170 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and size histograms of the meeting queries served, along with the slowest queries seen,
+ * so that pathological requests can be found in production. This class is thread-safe.
+ */
+public final class QueryMetrics {
+  /** The number of slowest queries kept. */
+  public static final int SLOWEST_KEPT = 10;
+
+  private static final QueryMetrics DEFAULT = new QueryMetrics();
+
+  private static final Comparator<QueryStats> BY_TOTAL_TIME = new Comparator<QueryStats>() {
+    @Override
+    public int compare(QueryStats a, QueryStats b) {
+      return Long.compare(b.getTotalNanos(), a.getTotalNanos());
+    }
+  };
+
+  private final Histogram parseMicros = new Histogram();
+  private final Histogram computeMicros = new Histogram();
+  private final Histogram serializeMicros = new Histogram();
+  private final Histogram totalMicros = new Histogram();
+  private final Histogram eventsScanned = new Histogram();
+  private final Histogram eventsMatched = new Histogram();
+  private final Histogram busyRanges = new Histogram();
+  private final Histogram slotsReturned = new Histogram();
+  private final LongAdder cacheHits = new LongAdder();
+  private final LongAdder cacheMisses = new LongAdder();
+  // The slowest queries, slowest first.
+  private final List<QueryStats> slowest = new ArrayList<>();
+
+  /**
+   * Returns the metrics shared by the servlets.
+   */
+  public static QueryMetrics getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * Adds the statistics of one query.
+   */
+  public void record(QueryStats stats) {
+    parseMicros.record(TimeUnit.NANOSECONDS.toMicros(stats.getParseNanos()));
+    computeMicros.record(TimeUnit.NANOSECONDS.toMicros(stats.getComputeNanos()));
+    serializeMicros.record(TimeUnit.NANOSECONDS.toMicros(stats.getSerializeNanos()));
+    totalMicros.record(TimeUnit.NANOSECONDS.toMicros(stats.getTotalNanos()));
+    slotsReturned.record(stats.getSlotsReturned());
+    if (stats.isCacheHit()) {
+      cacheHits.increment();
+    } else {
+      // Cached answers did not look at anything, so only computed ones count for the sizes. Event
+      // counts are only recorded by the queries that look at events.
+      cacheMisses.increment();
+      if (stats.hasEventCounts()) {
+        eventsScanned.record(stats.getEventsScanned());
+        eventsMatched.record(stats.getEventsMatched());
+      }
+      busyRanges.record(stats.getBusyRanges());
+    }
+
+    synchronized (slowest) {
+      if (slowest.size() < SLOWEST_KEPT
+          || stats.getTotalNanos() > slowest.get(slowest.size() - 1).getTotalNanos()) {
+        slowest.add(stats);
+        Collections.sort(slowest, BY_TOTAL_TIME);
+        if (slowest.size() > SLOWEST_KEPT) {
+          slowest.remove(slowest.size() - 1);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the histograms by metric name. Times are in microseconds. The event histograms only
+   * hold the queries that looked at events, which the answers computed from precomputed busy
+   * lists do not.
+   */
+  public Map<String, Histogram> getHistograms() {
+    Map<String, Histogram> histograms = new LinkedHashMap<>();
+    histograms.put("query_parse_micros", parseMicros);
+    histograms.put("query_compute_micros", computeMicros);
+    histograms.put("query_serialize_micros", serializeMicros);
+    histograms.put("query_total_micros", totalMicros);
+    histograms.put("query_events_scanned", eventsScanned);
+    histograms.put("query_events_matched", eventsMatched);
+    histograms.put("query_busy_ranges", busyRanges);
+    histograms.put("query_slots_returned", slotsReturned);
+    return histograms;
+  }
+
+  /**
+   * Returns the number of queries answered from a cache.
+   */
+  public long getCacheHits() {
+    return cacheHits.sum();
+  }
+
+  /**
+   * Returns the number of queries that had to be computed.
+   */
+  public long getCacheMisses() {
+    return cacheMisses.sum();
+  }
+
+  /**
+   * Returns the statistics of the slowest queries recorded, slowest first.
+   */
+  public List<QueryStats> getSlowest() {
+    synchronized (slowest) {
+      return new ArrayList<>(slowest);
+    }
+  }
+
+  /**
+   * Returns the metrics in the Prometheus text format, followed by the slowest queries as
+   * comments.
+   */
+  public String toText() {
+    StringBuilder text = new StringBuilder();
+    for (Map.Entry<String, Histogram> entry : getHistograms().entrySet()) {
+      String name = entry.getKey();
+      Histogram histogram = entry.getValue();
+      text.append("# TYPE ").append(name).append(" histogram\n");
+      long cumulative = 0;
+      // Every bound is written, even at 0, so that each scrape has the same series. The catch-all
+      // bucket is +Inf.
+      for (int bucket = 0; bucket < histogram.getBucketCount() - 1; bucket++) {
+        cumulative += histogram.getBucketValues(bucket);
+        text.append(name).append("_bucket{le=\"").append(histogram.getBucketBound(bucket))
+            .append("\"} ").append(cumulative).append('\n');
+      }
+      text.append(name).append("_bucket{le=\"+Inf\"} ").append(histogram.getCount()).append('\n');
+      text.append(name).append("_sum ").append(histogram.getSum()).append('\n');
+      text.append(name).append("_count ").append(histogram.getCount()).append('\n');
+    }
+    text.append("# TYPE query_cache_hits_total counter\n");
+    text.append("query_cache_hits_total ").append(getCacheHits()).append('\n');
+    text.append("# TYPE query_cache_misses_total counter\n");
+    text.append("query_cache_misses_total ").append(getCacheMisses()).append('\n');
+    text.append("# Slowest queries:\n");
+    for (QueryStats stats : getSlowest()) {
+      text.append("# ").append(stats).append('\n');
+    }
+    return text.toString();
+  }
+}
@@ -0,0 +1,186 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache of meeting query answers. Requests asking for the same people, duration and limit
+ * share an entry, whatever the order their attendees were given in. An answer is returned until
+ * the version of the events changes, it expires or it becomes the least recently used one of a
+ * full cache.
+ */
+public final class QueryResultCache {
+  private final int maxEntries;
+  private final long ttlNanos;
+  private final LongSupplier clock;
+  private final LinkedHashMap<Key, Entry> entries;
+  private long version;
+  private long hits;
+  private long misses;
+
+  /**
+   * Creates a cache holding at most {@code maxEntries} answers, each one for at most
+   * {@code ttlMillis} milliseconds.
+   */
+  public QueryResultCache(int maxEntries, long ttlMillis) {
+    this(maxEntries, ttlMillis, System::nanoTime);
+  }
+
+  QueryResultCache(int maxEntries, long ttlMillis, LongSupplier clock) {
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("maxEntries must be positive");
+    }
+    if (ttlMillis <= 0) {
+      throw new IllegalArgumentException("ttlMillis must be positive");
+    }
+    this.maxEntries = maxEntries;
+    this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    this.clock = clock;
+    // Access order turns the map into an LRU list, eldest entry first.
+    this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+        return size() > QueryResultCache.this.maxEntries;
+      }
+    };
+  }
+
+  /**
+   * Returns the answer to {@code request} over the events at {@code version}. Cached answers are
+   * used when possible, otherwise the answer is computed with {@code query} and cached. Versions
+   * only move forward: a newer version drops every cached answer, and answers for an older one,
+   * from requests that started before an update, are computed without being cached. The returned
+   * collection is read-only.
+   */
+  public Collection<TimeRange> get(MeetingRequest request, long version,
+      Function<MeetingRequest, ? extends Collection<TimeRange>> query) {
+    if (request == null) {
+      throw new IllegalArgumentException("request cannot be null");
+    }
+    Key key = new Key(request, version);
+    synchronized (this) {
+      if (version > this.version) {
+        entries.clear();
+        this.version = version;
+      }
+      Entry entry = version == this.version ? entries.get(key) : null;
+      if (entry != null && clock.getAsLong() - entry.created < ttlNanos) {
+        hits++;
+        return entry.answer;
+      }
+      misses++;
+    }
+
+    // Queries can be slow, so they run without holding the lock. Two threads missing on the same
+    // request both compute it and the last one wins, which gives the same answer.
+    Collection<TimeRange> answer =
+        Collections.unmodifiableList(new ArrayList<TimeRange>(query.apply(request)));
+    synchronized (this) {
+      if (version == this.version) {
+        entries.put(key, new Entry(answer, clock.getAsLong()));
+      }
+    }
+    return answer;
+  }
+
+  /**
+   * Drops every cached answer. The counters are kept.
+   */
+  public synchronized void clear() {
+    entries.clear();
+  }
+
+  /**
+   * Returns the number of cached answers, expired ones included until they are looked up again.
+   */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * Returns the number of requests answered from the cache.
+   */
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  /**
+   * Returns the number of requests that had to be computed.
+   */
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  private static final class Entry {
+    final Collection<TimeRange> answer;
+    final long created;
+
+    Entry(Collection<TimeRange> answer, long created) {
+      this.answer = answer;
+      this.created = created;
+    }
+  }
+
+  /** A request with its attendees sorted, so that equal requests have equal keys. */
+  private static final class Key {
+    private final List<String> attendees;
+    private final List<String> optionalAttendees;
+    private final long duration;
+    private final int limit;
+    private final long version;
+
+    Key(MeetingRequest request, long version) {
+      this.attendees = sorted(request.getAttendees());
+      this.optionalAttendees = sorted(request.getOptionalAttendees());
+      this.duration = request.getDuration();
+      this.limit = request.getLimit();
+      this.version = version;
+    }
+
+    private static List<String> sorted(Collection<String> names) {
+      List<String> sorted = new ArrayList<>(names);
+      Collections.sort(sorted);
+      return sorted;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) other;
+      return duration == key.duration && limit == key.limit && version == key.version
+          && attendees.equals(key.attendees) && optionalAttendees.equals(key.optionalAttendees);
+    }
+
+    @Override
+    public int hashCode() {
+      int hash = attendees.hashCode();
+      hash = 31 * hash + optionalAttendees.hashCode();
+      hash = 31 * hash + Long.hashCode(duration);
+      hash = 31 * hash + limit;
+      return 31 * hash + Long.hashCode(version);
+    }
+  }
+}
@@ -0,0 +1,205 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+/**
+ * What one meeting query did and how long each of its steps took, to find out why some queries
+ * are slow. Queries fill in the counts they know about and leave the others at 0. Queries that
+ * answer from precomputed busy lists never look at events, so they leave the event counts unset.
+ */
+public final class QueryStats {
+  private int attendees;
+  private int optionalAttendees;
+  private long duration;
+  private boolean cacheHit;
+  private boolean eventsCounted;
+  private long eventsScanned;
+  private long eventsMatched;
+  private long busyRanges;
+  private long slotsReturned;
+  private long parseNanos;
+  private long computeNanos;
+  private long serializeNanos;
+
+  /**
+   * Records the shape of {@code request}.
+   */
+  public void setRequest(MeetingRequest request) {
+    attendees = request.getAttendees().size();
+    optionalAttendees = request.getOptionalAttendees().size();
+    duration = request.getDuration();
+  }
+
+  /**
+   * Records whether the answer came from a cache, in which case nothing was computed.
+   */
+  public void setCacheHit(boolean cacheHit) {
+    this.cacheHit = cacheHit;
+  }
+
+  /**
+   * Adds {@code count} events looked at by the query.
+   */
+  public void addEventsScanned(long count) {
+    eventsCounted = true;
+    eventsScanned += count;
+  }
+
+  /**
+   * Adds {@code count} events attended by someone of the request.
+   */
+  public void addEventsMatched(long count) {
+    eventsCounted = true;
+    eventsMatched += count;
+  }
+
+  /**
+   * Adds {@code count} merged busy ranges the free slots were searched in. A search over the
+   * required attendees and then over everyone adds the sizes of both merged lists.
+   */
+  public void addBusyRanges(long count) {
+    busyRanges += count;
+  }
+
+  /**
+   * Records the number of slots in the answer.
+   */
+  public void setSlotsReturned(long count) {
+    slotsReturned = count;
+  }
+
+  /**
+   * Records the time spent reading the request.
+   */
+  public void setParseNanos(long nanos) {
+    parseNanos = nanos;
+  }
+
+  /**
+   * Records the time spent finding the slots.
+   */
+  public void setComputeNanos(long nanos) {
+    computeNanos = nanos;
+  }
+
+  /**
+   * Records the time spent writing the answer.
+   */
+  public void setSerializeNanos(long nanos) {
+    serializeNanos = nanos;
+  }
+
+  /**
+   * Returns the number of required attendees of the request.
+   */
+  public int getAttendees() {
+    return attendees;
+  }
+
+  /**
+   * Returns the number of optional attendees of the request.
+   */
+  public int getOptionalAttendees() {
+    return optionalAttendees;
+  }
+
+  /**
+   * Returns the duration of the requested meeting in minutes.
+   */
+  public long getDuration() {
+    return duration;
+  }
+
+  /**
+   * Returns true if the answer came from a cache.
+   */
+  public boolean isCacheHit() {
+    return cacheHit;
+  }
+
+  /**
+   * Returns true if the query looked at events and counted them.
+   */
+  public boolean hasEventCounts() {
+    return eventsCounted;
+  }
+
+  /**
+   * Returns the number of events looked at.
+   */
+  public long getEventsScanned() {
+    return eventsScanned;
+  }
+
+  /**
+   * Returns the number of events attended by someone of the request.
+   */
+  public long getEventsMatched() {
+    return eventsMatched;
+  }
+
+  /**
+   * Returns the number of merged busy ranges the free slots were searched in.
+   */
+  public long getBusyRanges() {
+    return busyRanges;
+  }
+
+  /**
+   * Returns the number of slots in the answer.
+   */
+  public long getSlotsReturned() {
+    return slotsReturned;
+  }
+
+  /**
+   * Returns the time spent reading the request.
+   */
+  public long getParseNanos() {
+    return parseNanos;
+  }
+
+  /**
+   * Returns the time spent finding the slots.
+   */
+  public long getComputeNanos() {
+    return computeNanos;
+  }
+
+  /**
+   * Returns the time spent writing the answer.
+   */
+  public long getSerializeNanos() {
+    return serializeNanos;
+  }
+
+  /**
+   * Returns the time spent in all the steps.
+   */
+  public long getTotalNanos() {
+    return parseNanos + computeNanos + serializeNanos;
+  }
+
+  @Override
+  public String toString() {
+    String events = eventsCounted
+        ? String.format("%d events scanned, %d matched, ", eventsScanned, eventsMatched)
+        : "";
+    return String.format("%d+%d attendees for %d min%s: %s%d busy ranges, %d slots; "
+            + "parse %d us, compute %d us, serialize %d us",
+        attendees, optionalAttendees, duration, cacheHit ? " (cached)" : "", events, busyRanges,
+        slotsReturned, parseNanos / 1000, computeNanos / 1000, serializeNanos / 1000);
+  }
+}
@@ -0,0 +1,126 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+/**
+ * Days on which a recurring event takes place, counted in days since the epoch like
+ * {@code EpochRange.fromDay}. An event recurs every {@code interval} days from its first day, on
+ * weekdays only if asked to, until an optional last day.
+ */
+public final class RecurrenceRule {
+  /** Returned by {@code nextOn} when there are no more occurrences. */
+  public static final long NONE = Long.MAX_VALUE;
+
+  private final long firstDay;
+  private final int interval;
+  private final boolean weekdaysOnly;
+  private final long lastDay;
+
+  private RecurrenceRule(long firstDay, int interval, boolean weekdaysOnly, long lastDay) {
+    if (interval <= 0) {
+      throw new IllegalArgumentException("interval must be positive");
+    }
+    if (lastDay < firstDay) {
+      throw new IllegalArgumentException("lastDay cannot come before firstDay");
+    }
+    this.firstDay = firstDay;
+    this.interval = interval;
+    this.weekdaysOnly = weekdaysOnly;
+    this.lastDay = lastDay;
+  }
+
+  /**
+   * Returns a rule for every day from {@code firstDay} on.
+   */
+  public static RecurrenceRule daily(long firstDay) {
+    return new RecurrenceRule(firstDay, 1, false, NONE - 1);
+  }
+
+  /**
+   * Returns a rule for every Monday to Friday from {@code firstDay} on, such as a stand-up.
+   */
+  public static RecurrenceRule weekdays(long firstDay) {
+    return new RecurrenceRule(firstDay, 1, true, NONE - 1);
+  }
+
+  /**
+   * Returns a rule for {@code firstDay} and the same day of every following week.
+   */
+  public static RecurrenceRule weekly(long firstDay) {
+    return everyDays(firstDay, 7);
+  }
+
+  /**
+   * Returns a rule for {@code firstDay} and every {@code interval} days after it.
+   */
+  public static RecurrenceRule everyDays(long firstDay, int interval) {
+    return new RecurrenceRule(firstDay, interval, false, NONE - 1);
+  }
+
+  /**
+   * Returns the same rule, ending on {@code lastDay} included.
+   */
+  public RecurrenceRule until(long lastDay) {
+    return new RecurrenceRule(firstDay, interval, weekdaysOnly, lastDay);
+  }
+
+  /**
+   * Returns the first day of the rule, which may not have an occurrence if it falls on a weekend
+   * of a weekday rule.
+   */
+  public long getFirstDay() {
+    return firstDay;
+  }
+
+  /**
+   * Returns the last day of the rule, or a day too far to matter if it never ends.
+   */
+  public long getLastDay() {
+    return lastDay;
+  }
+
+  /**
+   * Returns true if there is an occurrence on {@code day}.
+   */
+  public boolean occursOn(long day) {
+    return day >= firstDay && day <= lastDay && (day - firstDay) % interval == 0
+        && (!weekdaysOnly || isWeekday(day));
+  }
+
+  /**
+   * Returns the first day from {@code day} on with an occurrence, or {@code NONE} if there are no
+   * more occurrences.
+   */
+  public long nextOn(long day) {
+    long next = firstDay;
+    if (day > firstDay) {
+      long steps = (day - firstDay + interval - 1) / interval;
+      next = firstDay + steps * interval;
+    }
+    // Weekday rules step one day at a time, so at most a weekend is skipped.
+    while (next <= lastDay && weekdaysOnly && !isWeekday(next)) {
+      next += interval;
+    }
+    return next <= lastDay ? next : NONE;
+  }
+
+  private static boolean isWeekday(long day) {
+    DayOfWeek dayOfWeek = LocalDate.ofEpochDay(day).getDayOfWeek();
+    return dayOfWeek != DayOfWeek.SATURDAY && dayOfWeek != DayOfWeek.SUNDAY;
+  }
+}
@@ -0,0 +1,170 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Event that takes place at the same time of day on every day of a {@code RecurrenceRule}, such as
+ * a daily stand-up or a weekly 1:1. Occurrences are not stored: they are computed only for the
+ * days or the window being looked at. Recurring events are considered read-only.
+ */
+public final class RecurringEvent {
+  private final String title;
+  private final TimeRange when;
+  private final AttendeeSet attendees;
+  private final RecurrenceRule rule;
+
+  /**
+   * Creates a new recurring event.
+   *
+   * @param title The human-readable name for the event. Must be non-null.
+   * @param when The time of day of every occurrence. Must be non-null.
+   * @param attendees The collection of people attending the event. Must be non-null.
+   * @param rule The days the event takes place on. Must be non-null.
+   */
+  public RecurringEvent(
+      String title, TimeRange when, Collection<String> attendees, RecurrenceRule rule) {
+    if (title == null) {
+      throw new IllegalArgumentException("title cannot be null");
+    }
+
+    if (when == null) {
+      throw new IllegalArgumentException("when cannot be null");
+    }
+
+    if (attendees == null) {
+      throw new IllegalArgumentException("attendees cannot be null. Use empty array instead.");
+    }
+
+    if (rule == null) {
+      throw new IllegalArgumentException("rule cannot be null");
+    }
+
+    this.title = title;
+    this.when = when;
+    AttendeeDictionary dictionary = AttendeeDictionary.getDefault();
+    this.attendees = new AttendeeSet(dictionary, dictionary.intern(attendees));
+    this.rule = rule;
+  }
+
+  /**
+   * Returns the human-readable name for this event.
+   */
+  public String getTitle() {
+    return title;
+  }
+
+  /**
+   * Returns the time of day of every occurrence.
+   */
+  public TimeRange getWhen() {
+    return when;
+  }
+
+  /**
+   * Returns a read-only set of required attendees for this event.
+   */
+  public Set<String> getAttendees() {
+    return attendees;
+  }
+
+  /**
+   * Returns the days this event takes place on.
+   */
+  public RecurrenceRule getRule() {
+    return rule;
+  }
+
+  /**
+   * Returns the occurrence on {@code day} as a one-off {@code Event}, or null if the event does
+   * not take place that day.
+   */
+  public Event occurrenceOn(long day) {
+    return rule.occursOn(day) ? new Event(title, when, attendees) : null;
+  }
+
+  /**
+   * Returns the occurrences of all of {@code recurring} on {@code day}.
+   */
+  static List<Event> occurrencesOn(Collection<RecurringEvent> recurring, long day) {
+    List<Event> occurrences = new ArrayList<>();
+    for (RecurringEvent event : recurring) {
+      Event occurrence = event.occurrenceOn(day);
+      if (occurrence != null) {
+        occurrences.add(occurrence);
+      }
+    }
+    return occurrences;
+  }
+
+  /**
+   * Returns the occurrences that overlap {@code window}, in order. They are computed as they are
+   * iterated over, so a window of years costs nothing until it is read.
+   */
+  public Iterable<EpochRange> occurrences(final EpochRange window) {
+    return new Iterable<EpochRange>() {
+      @Override
+      public Iterator<EpochRange> iterator() {
+        return new OccurrenceIterator(window);
+      }
+    };
+  }
+
+  private final class OccurrenceIterator implements Iterator<EpochRange> {
+    private final EpochRange window;
+    private final long lastDay;
+    private long day;
+
+    OccurrenceIterator(EpochRange window) {
+      this.window = window;
+      this.lastDay = window.duration() > 0
+          ? Math.floorDiv(window.end() - 1, EpochRange.MINUTES_PER_DAY)
+          : Long.MIN_VALUE;
+      this.day = rule.nextOn(Math.floorDiv(window.start(), EpochRange.MINUTES_PER_DAY));
+      skipOutsideWindow();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return day <= lastDay;
+    }
+
+    @Override
+    public EpochRange next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      EpochRange occurrence = EpochRange.fromTimeRange(day, when);
+      day = rule.nextOn(day + 1);
+      skipOutsideWindow();
+      return occurrence;
+    }
+
+    /**
+     * Skips the occurrences of the first and last days that fall outside the window.
+     */
+    private void skipOutsideWindow() {
+      while (day <= lastDay && !EpochRange.fromTimeRange(day, when).overlaps(window)) {
+        day = rule.nextOn(day + 1);
+      }
+    }
+  }
+}
@@ -0,0 +1,82 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A meeting room with a number of seats and the times it is already booked. Rooms are considered
+ * read-only.
+ */
+public final class Room {
+  private final String name;
+  private final int capacity;
+  // Merged once, so that queries only have to join it with the busy list of the attendees.
+  private final List<TimeRange> busy;
+
+  /**
+   * Creates a new room.
+   *
+   * @param name The human-readable name of the room. Must be non-null.
+   * @param capacity The number of people the room seats. Must not be negative.
+   * @param bookings The times the room is already booked. Must be non-null.
+   */
+  public Room(String name, int capacity, Collection<TimeRange> bookings) {
+    if (name == null) {
+      throw new IllegalArgumentException("name cannot be null");
+    }
+
+    if (capacity < 0) {
+      throw new IllegalArgumentException("capacity cannot be negative");
+    }
+
+    if (bookings == null) {
+      throw new IllegalArgumentException("bookings cannot be null. Use empty array instead.");
+    }
+
+    this.name = name;
+    this.capacity = capacity;
+    this.busy = Collections.unmodifiableList(TimeRanges.merge(new ArrayList<>(bookings)));
+  }
+
+  /**
+   * Returns the human-readable name of this room.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the number of people this room seats.
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Returns the busy list of the room, as produced by {@code TimeRanges.merge} from its bookings.
+   */
+  public List<TimeRange> getBusy() {
+    return busy;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s (%d seats)", name, capacity);
+  }
+}
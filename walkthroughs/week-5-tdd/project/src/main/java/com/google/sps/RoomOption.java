@@ -0,0 +1,77 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+/**
+ * A possible time for a meeting, together with a room that is free and large enough for the whole
+ * of it. Options are considered read-only.
+ */
+public final class RoomOption {
+  private final TimeRange when;
+  private final Room room;
+
+  /**
+   * Creates a new option.
+   *
+   * @param when The time of the option. Must be non-null.
+   * @param room The room free during {@code when}. Must be non-null.
+   */
+  public RoomOption(TimeRange when, Room room) {
+    if (when == null) {
+      throw new IllegalArgumentException("when cannot be null");
+    }
+
+    if (room == null) {
+      throw new IllegalArgumentException("room cannot be null");
+    }
+
+    this.when = when;
+    this.room = room;
+  }
+
+  /**
+   * Returns the {@code TimeRange} of this option.
+   */
+  public TimeRange getWhen() {
+    return when;
+  }
+
+  /**
+   * Returns the room of this option.
+   */
+  public Room getRoom() {
+    return room;
+  }
+
+  @Override
+  public int hashCode() {
+    return when.hashCode() ^ room.hashCode();
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof RoomOption && equals(this, (RoomOption) other);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s in %s", when, room);
+  }
+
+  private static boolean equals(RoomOption a, RoomOption b) {
+    // Rooms have no equality of their own: two rooms with the same name are still two rooms.
+    return a.when.equals(b.when) && a.room == b.room;
+  }
+}
@@ -0,0 +1,53 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Busy lists of the required and of the optional attendees of a request that one shard knows
+ * about, as sent by an {@code AvailabilityWorker} to a {@code ShardCoordinator}.
+ */
+public final class ShardBusy {
+  private final List<TimeRange> required;
+  private final List<TimeRange> optional;
+
+  /**
+   * Creates the answer of a shard from two busy lists.
+   */
+  public ShardBusy(List<TimeRange> required, List<TimeRange> optional) {
+    if (required == null || optional == null) {
+      throw new IllegalArgumentException("busy lists cannot be null");
+    }
+    this.required = new ArrayList<>(required);
+    this.optional = new ArrayList<>(optional);
+  }
+
+  /**
+   * Returns the busy list of the required attendees.
+   */
+  public List<TimeRange> getRequired() {
+    return Collections.unmodifiableList(required);
+  }
+
+  /**
+   * Returns the busy list of the optional attendees.
+   */
+  public List<TimeRange> getOptional() {
+    return Collections.unmodifiableList(optional);
+  }
+}
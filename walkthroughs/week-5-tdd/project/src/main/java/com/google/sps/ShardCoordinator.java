@@ -0,0 +1,274 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import com.google.gson.Gson;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Coordinator of the sharded availability service, for calendars too large for one JVM. Attendees
+ * are spread over {@code AvailabilityWorker}s by {@code shardOf}. A query asks every shard holding
+ * some of its attendees for their merged busy lists, in parallel, then joins the lists and runs the
+ * free-slot sweep itself, answering like {@code FindMeetingQuery.query}.
+ */
+public final class ShardCoordinator implements AutoCloseable {
+  /** Default number of milliseconds a query waits for the workers. */
+  public static final int DEFAULT_TIMEOUT_MILLIS = 5000;
+
+  private final List<URL> workers;
+  private final int timeoutMillis;
+  private final ExecutorService executor;
+
+  public ShardCoordinator(List<URL> workers) {
+    this(workers, DEFAULT_TIMEOUT_MILLIS);
+  }
+
+  /**
+   * Creates a coordinator for the workers listening at {@code workers}.
+   *
+   * @param workers The base URLs of the workers, such as {@code http://host:port/}, with or without
+   *     the trailing slash. Shard {@code i} must be served by {@code workers.get(i)}.
+   * @param timeoutMillis The number of milliseconds a query waits for the workers, both to connect
+   *     to each of them and for all their answers. Must be positive.
+   */
+  public ShardCoordinator(List<URL> workers, int timeoutMillis) {
+    if (workers == null || workers.isEmpty()) {
+      throw new IllegalArgumentException("workers cannot be null or empty");
+    }
+
+    if (timeoutMillis <= 0) {
+      throw new IllegalArgumentException("timeoutMillis must be positive");
+    }
+
+    this.timeoutMillis = timeoutMillis;
+    this.workers = new ArrayList<>(workers.size());
+    for (URL worker : workers) {
+      this.workers.add(busyUrl(worker));
+    }
+    this.executor = Executors.newFixedThreadPool(workers.size());
+  }
+
+  /**
+   * Returns the URL of the {@code /busy} endpoint of the worker at {@code base}.
+   */
+  private static URL busyUrl(URL base) {
+    if (base == null) {
+      throw new IllegalArgumentException("worker URLs cannot be null");
+    }
+
+    if (base.getQuery() != null || base.getRef() != null) {
+      throw new IllegalArgumentException(
+          "Worker URL " + base + " must not have a query or fragment");
+    }
+    String path = base.getPath().endsWith("/") ? base.getPath() : base.getPath() + "/";
+    try {
+      return new URL(base.getProtocol(), base.getHost(), base.getPort(), path + "busy");
+    } catch (MalformedURLException e) {
+      throw new IllegalArgumentException("Invalid worker URL " + base, e);
+    }
+  }
+
+  /**
+   * Returns the shard holding the events of {@code attendee} out of {@code shards}.
+   */
+  public static int shardOf(String attendee, int shards) {
+    return Math.floorMod(attendee.hashCode(), shards);
+  }
+
+  /**
+   * Splits {@code events} over {@code shards} shards. An event goes to every shard holding at least
+   * one of its attendees, so each shard knows the whole busy list of its own attendees.
+   */
+  public static List<List<Event>> partition(Collection<Event> events, int shards) {
+    if (shards <= 0) {
+      throw new IllegalArgumentException("shards must be positive");
+    }
+    List<List<Event>> partitions = new ArrayList<>(shards);
+    for (int i = 0; i < shards; i++) {
+      partitions.add(new ArrayList<Event>());
+    }
+    boolean[] added = new boolean[shards];
+    for (Event event : events) {
+      for (String attendee : event.getAttendees()) {
+        int shard = shardOf(attendee, shards);
+        if (!added[shard]) {
+          added[shard] = true;
+          partitions.get(shard).add(event);
+        }
+      }
+      Arrays.fill(added, false);
+    }
+    return partitions;
+  }
+
+  /**
+   * Returns the events of {@code events} that shard {@code shard} out of {@code shards} holds, the
+   * same as {@code partition(events, shards).get(shard)}. The events are read once, in order, and
+   * only those of the shard are kept.
+   */
+  public static List<Event> shard(Iterable<Event> events, int shard, int shards) {
+    if (shard < 0 || shard >= shards) {
+      throw new IllegalArgumentException("shard must be between 0 and shards - 1");
+    }
+
+    List<Event> shardEvents = new ArrayList<>();
+    for (Event event : events) {
+      for (String attendee : event.getAttendees()) {
+        if (shardOf(attendee, shards) == shard) {
+          shardEvents.add(event);
+          break;
+        }
+      }
+    }
+    return shardEvents;
+  }
+
+  /**
+   * Returns the same slots as {@code FindMeetingQuery.query} over the events of all the shards.
+   *
+   * @throws IOException if a worker cannot be reached, fails or does not answer in time.
+   */
+  public Collection<TimeRange> query(MeetingRequest request) throws IOException {
+    if (request.getDuration() > TimeRange.WHOLE_DAY.duration()) {
+      return new ArrayList<>();
+    }
+
+    // Split the attendees of the request by shard, keeping required and optional apart.
+    List<List<String>> required = new ArrayList<>();
+    List<List<String>> optional = new ArrayList<>();
+    for (int i = 0; i < workers.size(); i++) {
+      required.add(new ArrayList<String>());
+      optional.add(new ArrayList<String>());
+    }
+    for (String attendee : request.getAttendees()) {
+      required.get(shardOf(attendee, workers.size())).add(attendee);
+    }
+    for (String attendee : request.getOptionalAttendees()) {
+      optional.get(shardOf(attendee, workers.size())).add(attendee);
+    }
+
+    List<Future<ShardBusy>> answers = new ArrayList<>();
+    for (int i = 0; i < workers.size(); i++) {
+      if (required.get(i).isEmpty() && optional.get(i).isEmpty()) {
+        continue;
+      }
+      MeetingRequest shardRequest = new MeetingRequest(required.get(i), request.getDuration());
+      for (String attendee : optional.get(i)) {
+        shardRequest.addOptionalAttendee(attendee);
+      }
+      answers.add(executor.submit(new BusyCall(workers.get(i), shardRequest, timeoutMillis)));
+    }
+
+    List<TimeRange> requiredBusy = new ArrayList<>();
+    List<TimeRange> optionalBusy = new ArrayList<>();
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    try {
+      for (Future<ShardBusy> answer : answers) {
+        ShardBusy busy = get(answer, deadline - System.nanoTime());
+        requiredBusy = TimeRanges.union(requiredBusy, busy.getRequired());
+        optionalBusy = TimeRanges.union(optionalBusy, busy.getOptional());
+      }
+    } finally {
+      // Don't leave calls running for a query that has already failed.
+      for (Future<ShardBusy> answer : answers) {
+        answer.cancel(true);
+      }
+    }
+    return FindMeetingQuery.limit(
+        FindMeetingQuery.slotsFor(requiredBusy, optionalBusy, request.getDuration()),
+        request.getLimit());
+  }
+
+  /**
+   * Stops the threads used to call the workers. The workers themselves keep running.
+   */
+  @Override
+  public void close() {
+    executor.shutdown();
+  }
+
+  private static ShardBusy get(Future<ShardBusy> answer, long timeoutNanos) throws IOException {
+    try {
+      return answer.get(timeoutNanos, TimeUnit.NANOSECONDS);
+    } catch (TimeoutException e) {
+      throw new IOException("Shard did not answer in time", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for a shard", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException("Shard failed", e.getCause());
+    }
+  }
+
+  /** Asks one worker for the busy lists of its attendees of a request. */
+  private static final class BusyCall implements Callable<ShardBusy> {
+    private final URL worker;
+    private final MeetingRequest request;
+    private final int timeoutMillis;
+
+    BusyCall(URL worker, MeetingRequest request, int timeoutMillis) {
+      this.worker = worker;
+      this.request = request;
+      this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public ShardBusy call() throws IOException {
+      Gson gson = new Gson();
+      HttpURLConnection connection = (HttpURLConnection) worker.openConnection();
+      try {
+        connection.setConnectTimeout(timeoutMillis);
+        connection.setReadTimeout(timeoutMillis);
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", "application/json");
+        try (OutputStream out = connection.getOutputStream()) {
+          out.write(gson.toJson(request).getBytes(StandardCharsets.UTF_8));
+        }
+        if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+          throw new IOException(
+              "Worker " + worker + " answered with status " + connection.getResponseCode());
+        }
+        try (Reader reader =
+            new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8)) {
+          return gson.fromJson(reader, ShardBusy.class);
+        }
+      } finally {
+        connection.disconnect();
+      }
+    }
+  }
+}
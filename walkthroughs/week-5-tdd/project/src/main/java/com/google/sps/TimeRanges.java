@@ -0,0 +1,137 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Helpers for working with lists of busy {@code TimeRange}s. A "busy list" is a list of ranges
+ * sorted by start time where no two ranges overlap or touch, as produced by {@code merge}.
+ */
+public final class TimeRanges {
+  private TimeRanges() {
+    // Disallow instances.
+  }
+
+  /**
+   * Returns the busy list covering the same minutes as {@code ranges}. Ranges are sorted by
+   * {@code TimeRange.ORDER_BY_START} and overlapping or touching ranges are joined. Ranges with no
+   * duration do not block any minute and are dropped. The input list is not modified.
+   */
+  public static List<TimeRange> merge(List<TimeRange> ranges) {
+    List<TimeRange> sorted = new ArrayList<>(ranges);
+    Collections.sort(sorted, TimeRange.ORDER_BY_START);
+
+    List<TimeRange> merged = new ArrayList<>();
+    int start = 0;
+    int end = 0;
+    boolean open = false;
+    for (TimeRange range : sorted) {
+      if (range.duration() <= 0) {
+        continue;
+      }
+      if (open && range.start() <= end) {
+        end = Math.max(end, range.end());
+        continue;
+      }
+      if (open) {
+        merged.add(TimeRange.fromStartEnd(start, end, false));
+      }
+      start = range.start();
+      end = range.end();
+      open = true;
+    }
+    if (open) {
+      merged.add(TimeRange.fromStartEnd(start, end, false));
+    }
+    return merged;
+  }
+
+  /**
+   * Returns the busy list covering the minutes of both busy lists {@code a} and {@code b}, in time
+   * linear in their sizes. The input lists are not modified.
+   */
+  public static List<TimeRange> union(List<TimeRange> a, List<TimeRange> b) {
+    if (a.isEmpty()) {
+      return new ArrayList<>(b);
+    }
+    if (b.isEmpty()) {
+      return new ArrayList<>(a);
+    }
+
+    List<TimeRange> merged = new ArrayList<>(a.size() + b.size());
+    int i = 0;
+    int j = 0;
+    int start = 0;
+    int end = 0;
+    boolean open = false;
+    while (i < a.size() || j < b.size()) {
+      TimeRange next;
+      if (j == b.size() || (i < a.size() && a.get(i).start() <= b.get(j).start())) {
+        next = a.get(i++);
+      } else {
+        next = b.get(j++);
+      }
+      if (open && next.start() <= end) {
+        end = Math.max(end, next.end());
+        continue;
+      }
+      if (open) {
+        merged.add(TimeRange.fromStartEnd(start, end, false));
+      }
+      start = next.start();
+      end = next.end();
+      open = true;
+    }
+    merged.add(TimeRange.fromStartEnd(start, end, false));
+    return merged;
+  }
+
+  /**
+   * Returns the gaps of the whole day that are not covered by the busy list {@code busy} and that
+   * last at least {@code minDuration} minutes, in ascending order.
+   */
+  public static List<TimeRange> freeSlots(List<TimeRange> busy, long minDuration) {
+    return freeSlots(busy, TimeRange.WHOLE_DAY, minDuration);
+  }
+
+  /**
+   * Returns the gaps of {@code window} that are not covered by the busy list {@code busy} and that
+   * last at least {@code minDuration} minutes, in ascending order.
+   */
+  public static List<TimeRange> freeSlots(
+      List<TimeRange> busy, TimeRange window, long minDuration) {
+    List<TimeRange> slots = new ArrayList<>();
+    int windowEnd = window.end();
+    int cursor = window.start();
+    for (TimeRange range : busy) {
+      if (range.start() >= windowEnd) {
+        break;
+      }
+      addSlot(slots, cursor, range.start(), minDuration);
+      cursor = Math.max(cursor, range.end());
+    }
+    addSlot(slots, cursor, windowEnd, minDuration);
+    return slots;
+  }
+
+  private static void addSlot(List<TimeRange> slots, int start, int end, long minDuration) {
+    if (end > start && end - start >= minDuration) {
+      slots.add(TimeRange.fromStartEnd(start, end, false));
+    }
+  }
+}
@@ -14,9 +14,15 @@
 
 package com.google.sps.servlets;
 
-import com.google.sps.Events;
+import com.google.sps.EventSource;
+import com.google.sps.EventSources;
 import com.google.gson.Gson;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.GZIPOutputStream;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
@@ -24,13 +30,160 @@ import javax.servlet.http.HttpServletResponse;
 
 @WebServlet("/get-events")
 public class GetEventsServlet extends HttpServlet {
+  // The events only change with their source, so their JSON is built once per source version and
+  // every request is served the same bytes.
+  private Body body;
+
   @Override
   public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
-    Gson gson = new Gson();
-    String jsonResponse = gson.toJson(Events.events);
+    Body current = getBody();
+    boolean gzip = acceptsGzip(request.getHeader("Accept-Encoding"));
+    String etag = gzip ? current.gzipEtag : current.etag;
+
+    response.setHeader("ETag", etag);
+    response.setHeader("Vary", "Accept-Encoding");
+    if (matches(request.getHeader("If-None-Match"), etag)) {
+      response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+      return;
+    }
 
     // Send the JSON back as the response
+    byte[] bytes = gzip ? current.gzip : current.json;
     response.setContentType("application/json");
-    response.getWriter().println(jsonResponse);
+    response.setCharacterEncoding("UTF-8");
+    if (gzip) {
+      response.setHeader("Content-Encoding", "gzip");
+    }
+    response.setContentLength(bytes.length);
+    response.getOutputStream().write(bytes);
+  }
+
+  private synchronized Body getBody() throws IOException {
+    EventSource source = EventSources.get();
+    long version = source.getVersion();
+    if (body == null || source != body.source || version != body.version) {
+      body = new Body(source, version);
+    }
+    return body;
+  }
+
+  /**
+   * Returns whether an {@code Accept-Encoding} header allows gzip. A {@code gzip} or
+   * {@code x-gzip} coding decides with its quality, otherwise a {@code *} coding does, and a
+   * missing header or coding means no.
+   */
+  private static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    double gzipQuality = -1;
+    double anyQuality = -1;
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parts = coding.split(";");
+      String name = parts[0].trim();
+      if (name.equalsIgnoreCase("gzip") || name.equalsIgnoreCase("x-gzip")) {
+        gzipQuality = Math.max(gzipQuality, quality(parts));
+      } else if (name.equals("*")) {
+        anyQuality = Math.max(anyQuality, quality(parts));
+      }
+    }
+    return gzipQuality >= 0 ? gzipQuality > 0 : anyQuality > 0;
+  }
+
+  /**
+   * Returns the {@code q} parameter of a coding split at its semicolons, 1 if it has none, or 0 if
+   * it cannot be read.
+   */
+  private static double quality(String[] parts) {
+    for (int i = 1; i < parts.length; i++) {
+      String[] parameter = parts[i].split("=", 2);
+      if (parameter.length == 2 && parameter[0].trim().equalsIgnoreCase("q")) {
+        try {
+          double quality = Double.parseDouble(parameter[1].trim());
+          return quality >= 0 && quality <= 1 ? quality : 0;
+        } catch (NumberFormatException e) {
+          return 0;
+        }
+      }
+    }
+    return 1;
+  }
+
+  /**
+   * Returns whether an {@code If-None-Match} header is {@code *} or lists {@code etag}. Tags are
+   * compared with the weak comparison of RFC 7232, which ignores the {@code W/} prefix.
+   */
+  private static boolean matches(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    if (ifNoneMatch.trim().equals("*")) {
+      return true;
+    }
+    String opaque = opaqueTag(etag);
+    // Tags are quoted and may contain commas, so the header is scanned instead of split.
+    int position = 0;
+    while (position < ifNoneMatch.length()) {
+      int start = ifNoneMatch.indexOf('"', position);
+      if (start < 0) {
+        return false;
+      }
+      int end = ifNoneMatch.indexOf('"', start + 1);
+      if (end < 0) {
+        return false;
+      }
+      if (ifNoneMatch.substring(start, end + 1).equals(opaque)) {
+        return true;
+      }
+      position = end + 1;
+    }
+    return false;
+  }
+
+  /**
+   * Returns {@code etag} without its weakness prefix, if any.
+   */
+  private static String opaqueTag(String etag) {
+    return etag.startsWith("W/") ? etag.substring(2) : etag;
+  }
+
+  /** The JSON of one version of an event source, plain and gzipped, with their strong ETags. */
+  private static final class Body {
+    final EventSource source;
+    final long version;
+    final byte[] json;
+    final byte[] gzip;
+    final String etag;
+    final String gzipEtag;
+
+    Body(EventSource source, long version) throws IOException {
+      this.source = source;
+      this.version = version;
+      this.json = new Gson().toJson(source.getEvents()).getBytes(StandardCharsets.UTF_8);
+
+      ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+      try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+        out.write(json);
+      }
+      this.gzip = compressed.toByteArray();
+
+      // Both copies share the digest of the JSON, but a strong ETag must differ between encodings.
+      String digest = sha256(json);
+      this.etag = "\"" + digest + "\"";
+      this.gzipEtag = "\"" + digest + "-gzip\"";
+    }
+
+    private static String sha256(byte[] bytes) {
+      try {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : MessageDigest.getInstance("SHA-256").digest(bytes)) {
+          hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+      } catch (NoSuchAlgorithmException e) {
+        // Every Java platform is required to support SHA-256.
+        throw new IllegalStateException(e);
+      }
+    }
   }
 }
@@ -14,14 +14,23 @@
 
 package com.google.sps.servlets;
 
-import com.google.sps.Events;
-import com.google.sps.FindMeetingQuery;
+import com.google.sps.AvailabilityCache;
+import com.google.sps.EventChanges;
+import com.google.sps.EventSource;
+import com.google.sps.EventSources;
 import com.google.sps.MeetingRequest;
+import com.google.sps.QueryMetrics;
+import com.google.sps.QueryResultCache;
+import com.google.sps.QueryStats;
 import com.google.sps.TimeRange;
 import com.google.gson.Gson;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
@@ -29,23 +38,157 @@ import javax.servlet.http.HttpServletResponse;
 
 @WebServlet("/query")
 public class QueryServlet extends HttpServlet {
+  // Teams tend to ask for the same meetings over and over, so recent answers are kept for a while.
+  private static final int CACHED_ANSWERS = 1024;
+  private static final long CACHED_ANSWER_TTL_MILLIS = 60 * 1000;
+
+  private final QueryResultCache answers =
+      new QueryResultCache(CACHED_ANSWERS, CACHED_ANSWER_TTL_MILLIS);
+
+  // Whether answers are cached at all. Load tests turn it off to measure the computation.
+  private boolean cacheAnswers = true;
+
+  // Keep every attendee's busy times ready so that requests don't go through all the events. The
+  // cache is updated with the changes of the event source when it knows them, and rebuilt
+  // otherwise.
+  private Availability availability;
+
+  // Attendee groups whose busy times are kept merged, by name. They are registered again in every
+  // rebuilt cache.
+  private final Map<String, List<String>> groups = new LinkedHashMap<>();
+
+  /**
+   * Registers the groups of the {@code groups} init parameter, written as
+   * {@code name=member,member;name=member,...}. Answers are not cached if the
+   * {@code cacheAnswers} init parameter is {@code false}.
+   */
+  @Override
+  public void init() {
+    cacheAnswers = !"false".equals(getInitParameter("cacheAnswers"));
+    String parameter = getInitParameter("groups");
+    if (parameter == null) {
+      return;
+    }
+    for (String group : parameter.split(";")) {
+      String[] parts = group.split("=", 2);
+      if (parts.length == 2 && !parts[0].trim().isEmpty()) {
+        registerGroup(parts[0].trim(), Arrays.asList(parts[1].trim().split("\\s*,\\s*")));
+      }
+    }
+  }
+
   @Override
   public void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
     Gson gson = new Gson();
+    QueryStats stats = new QueryStats();
 
     // Convert the JSON to an instance of MeetingRequest.
+    long start = System.nanoTime();
     MeetingRequest meetingRequest = gson.fromJson(request.getReader(), MeetingRequest.class);
+    stats.setRequest(meetingRequest);
+    long parsed = System.nanoTime();
 
-    // Find the possible meeting times.
-    FindMeetingQuery findMeetingQuery = new FindMeetingQuery();
-    Collection<TimeRange> answer =
-        findMeetingQuery.query(Arrays.asList(Events.events), meetingRequest);
+    // Find the possible meeting times. The answer is only computed when it is not cached.
+    Availability current = getAvailability();
+    Collection<TimeRange> answer;
+    if (cacheAnswers) {
+      stats.setCacheHit(true);
+      answer = answers.get(meetingRequest, current.generation, asked -> {
+        stats.setCacheHit(false);
+        return current.busy.query(asked, stats);
+      });
+    } else {
+      answer = current.busy.query(meetingRequest, stats);
+    }
+    stats.setSlotsReturned(answer.size());
+    long computed = System.nanoTime();
 
     // Convert the times to JSON
     String jsonResponse = gson.toJson(answer);
+    long serialized = System.nanoTime();
+
+    stats.setParseNanos(parsed - start);
+    stats.setComputeNanos(computed - parsed);
+    stats.setSerializeNanos(serialized - computed);
+    QueryMetrics.getDefault().record(stats);
 
     // Send the JSON back as the response
     response.setContentType("application/json");
     response.getWriter().println(jsonResponse);
   }
+
+  /**
+   * Registers the group {@code name} of people often asked about together, such as a team, so that
+   * their merged busy times are kept ready.
+   */
+  public synchronized void registerGroup(String name, Collection<String> members) {
+    groups.put(name, new ArrayList<>(members));
+    if (availability != null) {
+      availability.busy.registerGroup(name, members);
+    }
+  }
+
+  /**
+   * Unregisters the group {@code name}.
+   */
+  public synchronized void unregisterGroup(String name) {
+    groups.remove(name);
+    if (availability != null) {
+      availability.busy.unregisterGroup(name);
+    }
+  }
+
+  private synchronized Availability getAvailability() {
+    EventSource source = EventSources.get();
+    long version = source.getVersion();
+    if (availability != null && source == availability.source && version == availability.version) {
+      return availability;
+    }
+    long generation = availability == null ? 0 : availability.generation + 1;
+
+    // The same source can usually say what changed, which is much cheaper to apply than
+    // rebuilding every attendee's busy list.
+    EventChanges changes =
+        availability == null || source != availability.source
+            ? null
+            : source.getChangesSince(availability.version);
+    if (changes != null) {
+      AvailabilityCache busy = availability.busy;
+      for (int i = 0; i < changes.size(); i++) {
+        if (changes.isAdded(i)) {
+          busy.addEvent(changes.getEvent(i));
+        } else {
+          busy.removeEvent(changes.getEvent(i));
+        }
+      }
+      availability = new Availability(source, changes.getVersion(), generation, busy);
+      return availability;
+    }
+
+    availability = new Availability(
+        source, version, generation, new AvailabilityCache(source.getEvents()));
+    for (Map.Entry<String, List<String>> group : groups.entrySet()) {
+      availability.busy.registerGroup(group.getKey(), group.getValue());
+    }
+    return availability;
+  }
+
+  /**
+   * Busy times of one version of an event source. Each update or rebuild gets a new generation,
+   * which is the version the answers are cached under since different sources may share version
+   * numbers.
+   */
+  private static final class Availability {
+    final EventSource source;
+    final long version;
+    final long generation;
+    final AvailabilityCache busy;
+
+    Availability(EventSource source, long version, long generation, AvailabilityCache busy) {
+      this.source = source;
+      this.version = version;
+      this.generation = generation;
+      this.busy = busy;
+    }
+  }
 }
@@ -92,10 +92,14 @@ function timeToString(totalMinutes) {
  * Request for possible meeting times.
  */
 class MeetingRequest {
-  constructor(duration, attendees, optional_attendees) {
+  constructor(duration, attendees, optional_attendees, limit = 0, headcount = 0) {
     this.duration = duration;
     this.attendees = attendees;
     this.optional_attendees = optional_attendees;
+    // The number of earliest slots wanted, 0 for all of them.
+    this.limit = limit;
+    // The number of seats the room needs, 0 for one per attendee.
+    this.headcount = headcount;
   }
 }
 
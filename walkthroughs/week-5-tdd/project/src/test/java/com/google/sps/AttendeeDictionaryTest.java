@@ -0,0 +1,86 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import com.google.gson.Gson;
+import java.util.Arrays;
+import java.util.HashSet;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class AttendeeDictionaryTest {
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+  private static final String PERSON_C = "Person C";
+
+  @Test
+  public void internAssignsDenseIds() {
+    AttendeeDictionary dictionary = new AttendeeDictionary();
+
+    Assert.assertEquals(0, dictionary.intern(PERSON_A));
+    Assert.assertEquals(1, dictionary.intern(PERSON_B));
+    Assert.assertEquals(0, dictionary.intern(PERSON_A));
+    Assert.assertEquals(PERSON_B, dictionary.getName(1));
+    Assert.assertEquals(2, dictionary.size());
+  }
+
+  @Test
+  public void lookupSkipsUnknownNames() {
+    AttendeeDictionary dictionary = new AttendeeDictionary();
+    dictionary.intern(PERSON_B);
+    dictionary.intern(PERSON_A);
+
+    int[] actual = dictionary.lookup(Arrays.asList(PERSON_A, PERSON_C, PERSON_B, PERSON_A));
+
+    Assert.assertArrayEquals(new int[] {0, 1}, actual);
+    Assert.assertEquals(2, dictionary.size());
+  }
+
+  @Test
+  public void intersects() {
+    Assert.assertTrue(AttendeeDictionary.intersects(new int[] {1, 4, 9}, new int[] {2, 9}));
+    Assert.assertFalse(AttendeeDictionary.intersects(new int[] {1, 4, 9}, new int[] {2, 5, 10}));
+    Assert.assertFalse(AttendeeDictionary.intersects(new int[] {}, new int[] {2}));
+  }
+
+  @Test
+  public void eventAttendeesBehaveLikeAHashSet() {
+    Event event = new Event("Event 1", TimeRange.fromStartDuration(0, 30),
+        Arrays.asList(PERSON_B, PERSON_A, PERSON_B));
+
+    Assert.assertEquals(new HashSet<>(Arrays.asList(PERSON_A, PERSON_B)), event.getAttendees());
+    Assert.assertEquals(
+        new HashSet<>(Arrays.asList(PERSON_A, PERSON_B)).hashCode(), event.getAttendees().hashCode());
+    Assert.assertTrue(event.getAttendees().contains(PERSON_A));
+    Assert.assertFalse(event.getAttendees().contains(PERSON_C));
+  }
+
+  @Test
+  public void eventAttendeesAreSerializedAsNames() {
+    Event event =
+        new Event("Event 1", TimeRange.fromStartDuration(0, 30), Arrays.asList(PERSON_A));
+
+    String json = new Gson().toJson(event);
+
+    Assert.assertEquals(
+        "{\"title\":\"Event 1\",\"when\":{\"start\":0,\"duration\":30},"
+            + "\"attendees\":[\"Person A\"]}",
+        json);
+  }
+}
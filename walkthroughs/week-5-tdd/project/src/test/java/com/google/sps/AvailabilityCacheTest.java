@@ -0,0 +1,145 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class AvailabilityCacheTest {
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+
+  @Test
+  public void addingEventsJoinsBusyRanges() {
+    AvailabilityCache cache = new AvailabilityCache();
+    cache.addEvent(new Event("Event 1", TimeRange.fromStartEnd(100, 200, false),
+        Arrays.asList(PERSON_A)));
+    cache.addEvent(new Event("Event 2", TimeRange.fromStartEnd(300, 400, false),
+        Arrays.asList(PERSON_A)));
+    cache.addEvent(new Event("Event 3", TimeRange.fromStartEnd(200, 300, false),
+        Arrays.asList(PERSON_A, PERSON_B)));
+
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartEnd(100, 400, false)),
+        cache.getBusy(PERSON_A));
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartEnd(200, 300, false)),
+        cache.getBusy(PERSON_B));
+  }
+
+  @Test
+  public void removingAnEventSplitsItsBusyRange() {
+    Event event1 = new Event("Event 1", TimeRange.fromStartEnd(100, 200, false),
+        Arrays.asList(PERSON_A));
+    Event event2 = new Event("Event 2", TimeRange.fromStartEnd(150, 350, false),
+        Arrays.asList(PERSON_A));
+    Event event3 = new Event("Event 3", TimeRange.fromStartEnd(300, 400, false),
+        Arrays.asList(PERSON_A));
+    AvailabilityCache cache = new AvailabilityCache(Arrays.asList(event1, event2, event3));
+
+    Assert.assertTrue(cache.removeEvent(event2));
+    Assert.assertFalse(cache.removeEvent(event2));
+
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartEnd(100, 200, false),
+        TimeRange.fromStartEnd(300, 400, false)), cache.getBusy(PERSON_A));
+  }
+
+  @Test
+  public void matchesFindMeetingQueryAfterUpdates() {
+    Random random = new Random(11);
+    List<String> people = Arrays.asList("A", "B", "C", "D");
+    List<Event> events = new ArrayList<>();
+    AvailabilityCache cache = new AvailabilityCache();
+    FindMeetingQuery query = new FindMeetingQuery();
+
+    for (int round = 0; round < 300; round++) {
+      if (!events.isEmpty() && random.nextInt(3) == 0) {
+        Event removed = events.remove(random.nextInt(events.size()));
+        cache.removeEvent(removed);
+      } else {
+        int start = random.nextInt(TimeRange.WHOLE_DAY.duration());
+        Event added = new Event("Event " + round,
+            TimeRange.fromStartEnd(start, Math.min(start + random.nextInt(200),
+                TimeRange.WHOLE_DAY.end()), false),
+            people.subList(random.nextInt(2), 2 + random.nextInt(3)));
+        events.add(added);
+        cache.addEvent(added);
+      }
+
+      MeetingRequest request = new MeetingRequest(Arrays.asList("A", "B"), 30);
+      request.addOptionalAttendee("D");
+      Collection<TimeRange> expected = query.query(events, request);
+
+      Assert.assertEquals(expected, cache.query(request));
+    }
+  }
+
+  @Test
+  public void groupBusyFollowsItsMembers() {
+    Event shared = new Event("Event 1", TimeRange.fromStartEnd(100, 200, false),
+        Arrays.asList(PERSON_A, PERSON_B));
+    Event own = new Event("Event 2", TimeRange.fromStartEnd(150, 300, false),
+        Arrays.asList(PERSON_B));
+    AvailabilityCache cache = new AvailabilityCache(Arrays.asList(shared));
+    cache.registerGroup("Team", Arrays.asList(PERSON_A, PERSON_B));
+
+    cache.addEvent(own);
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartEnd(100, 300, false)),
+        cache.getGroupBusy("Team"));
+
+    // The shared event was counted for both members and must go away completely.
+    cache.removeEvent(shared);
+    Assert.assertEquals(Arrays.asList(TimeRange.fromStartEnd(150, 300, false)),
+        cache.getGroupBusy("Team"));
+
+    Assert.assertTrue(cache.unregisterGroup("Team"));
+    Assert.assertFalse(cache.unregisterGroup("Team"));
+  }
+
+  @Test
+  public void queriesContainingAGroupMatchFindMeetingQuery() {
+    Random random = new Random(13);
+    List<String> people = Arrays.asList("A", "B", "C", "D");
+    List<Event> events = new ArrayList<>();
+    AvailabilityCache cache = new AvailabilityCache();
+    cache.registerGroup("AB", Arrays.asList("A", "B"));
+    cache.registerGroup("ABC", Arrays.asList("A", "B", "C"));
+    FindMeetingQuery query = new FindMeetingQuery();
+
+    for (int round = 0; round < 300; round++) {
+      if (!events.isEmpty() && random.nextInt(3) == 0) {
+        cache.removeEvent(events.remove(random.nextInt(events.size())));
+      } else {
+        int start = random.nextInt(TimeRange.WHOLE_DAY.duration());
+        Event added = new Event("Event " + round,
+            TimeRange.fromStartEnd(start, Math.min(start + random.nextInt(200),
+                TimeRange.WHOLE_DAY.end()), false),
+            people.subList(random.nextInt(3), 3 + random.nextInt(2)));
+        events.add(added);
+        cache.addEvent(added);
+      }
+
+      MeetingRequest request = new MeetingRequest(people.subList(0, 2 + round % 3), 30);
+      Assert.assertEquals(query.query(events, request), cache.query(request));
+    }
+  }
+}
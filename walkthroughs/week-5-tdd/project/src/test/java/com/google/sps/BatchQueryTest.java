@@ -0,0 +1,55 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests {@code FindMeetingQuery.queryBatch}, which is the same for every engine. */
+@RunWith(JUnit4.class)
+public final class BatchQueryTest {
+  private static final int DURATION_30_MINUTES = 30;
+  private static final int DURATION_60_MINUTES = 60;
+  private static final int DURATION_2_HOUR = 120;
+
+  private final FindMeetingQuery query = new FindMeetingQuery();
+
+  @Test
+  public void batchMatchesSingleQueries() {
+    Collection<Event> events = Arrays.asList(Events.events);
+    List<MeetingRequest> requests = new ArrayList<>();
+    requests.add(new MeetingRequest(Arrays.asList("Amelia", "Logan"), DURATION_30_MINUTES));
+    requests.add(new MeetingRequest(Arrays.asList("Amelia", "Logan"), DURATION_60_MINUTES));
+    requests.add(new MeetingRequest(Arrays.asList("Ava"), DURATION_2_HOUR));
+    requests.add(new MeetingRequest(Arrays.asList("Ava"), TimeRange.WHOLE_DAY.duration() + 1));
+    MeetingRequest withOptional = new MeetingRequest(Arrays.asList("Emma"), DURATION_30_MINUTES);
+    withOptional.addOptionalAttendee("Liam");
+    requests.add(withOptional);
+
+    List<Collection<TimeRange>> actual = query.queryBatch(events, requests);
+    List<Collection<TimeRange>> expected = new ArrayList<>();
+    for (MeetingRequest request : requests) {
+      expected.add(query.query(events, request));
+    }
+
+    Assert.assertEquals(expected, actual);
+  }
+}
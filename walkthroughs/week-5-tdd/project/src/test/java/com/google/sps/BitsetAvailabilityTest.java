@@ -0,0 +1,90 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class BitsetAvailabilityTest {
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+
+  private static final int TIME_0830AM = TimeRange.getTimeInMinutes(8, 30);
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+
+  @Test
+  public void eventSplitsRestriction() {
+    Collection<Event> events = Arrays.asList(new Event("Event 1",
+        TimeRange.fromStartEnd(TIME_0830AM, TIME_0900AM, false), Arrays.asList(PERSON_A)));
+    BitsetAvailability availability = new BitsetAvailability(events);
+
+    Collection<TimeRange> actual =
+        availability.query(new MeetingRequest(Arrays.asList(PERSON_A), 30));
+    Collection<TimeRange> expected =
+        Arrays.asList(TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0830AM, false),
+            TimeRange.fromStartEnd(TIME_0900AM, TimeRange.END_OF_DAY, true));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void wordBoundaries() {
+    // Minute 64 starts the second word of the mask and minute 1439 is the last bit of the day.
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartEnd(63, 65, false), Arrays.asList(PERSON_A)),
+        new Event("Event 2", TimeRange.fromStartEnd(1439, 1440, false), Arrays.asList(PERSON_A)));
+    BitsetAvailability availability = new BitsetAvailability(events);
+
+    Collection<TimeRange> actual =
+        availability.query(new MeetingRequest(Arrays.asList(PERSON_A), 1));
+    Collection<TimeRange> expected = Arrays.asList(TimeRange.fromStartEnd(0, 63, false),
+        TimeRange.fromStartEnd(65, 1439, false));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void matchesFindMeetingQueryOnRandomCalendars() {
+    Random random = new Random(42);
+    List<String> people = Arrays.asList("A", "B", "C", "D", "E", "F");
+    FindMeetingQuery query = new FindMeetingQuery();
+
+    for (int round = 0; round < 200; round++) {
+      List<Event> events = new ArrayList<>();
+      for (int i = 0; i < 10; i++) {
+        int start = random.nextInt(TimeRange.WHOLE_DAY.duration());
+        int duration = 1 + random.nextInt(180);
+        int end = Math.min(start + duration, TimeRange.WHOLE_DAY.end());
+        events.add(new Event("Event " + i, TimeRange.fromStartEnd(start, end, false),
+            Arrays.asList(people.get(random.nextInt(people.size())))));
+      }
+      MeetingRequest request =
+          new MeetingRequest(people.subList(0, 1 + random.nextInt(2)), 1 + random.nextInt(120));
+      request.addOptionalAttendee(people.get(3 + random.nextInt(3)));
+
+      Assert.assertEquals(
+          query.query(events, request), new BitsetAvailability(events).query(request));
+    }
+  }
+}
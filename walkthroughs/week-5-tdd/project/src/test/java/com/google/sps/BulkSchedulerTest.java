@@ -0,0 +1,123 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class BulkSchedulerTest {
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+  private static final String PERSON_C = "Person C";
+
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+  private static final int TIME_1000AM = TimeRange.getTimeInMinutes(10, 0);
+
+  // Everyone is only free from 9 to 10.
+  private static final Event BEFORE =
+      new Event("Before", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0900AM, false),
+          Arrays.asList(PERSON_A, PERSON_B, PERSON_C));
+  private static final Event AFTER =
+      new Event("After", TimeRange.fromStartEnd(TIME_1000AM, TimeRange.END_OF_DAY, true),
+          Arrays.asList(PERSON_A, PERSON_B, PERSON_C));
+
+  @Test
+  public void higherPriorityIsPlacedFirst() {
+    BulkScheduler scheduler = new BulkScheduler(Arrays.asList(BEFORE, AFTER));
+    MeetingRequest low = new MeetingRequest(Arrays.asList(PERSON_A), 60);
+    MeetingRequest high = new MeetingRequest(Arrays.asList(PERSON_A, PERSON_B), 60);
+    scheduler.add("Low", low, 1);
+    scheduler.add("High", high, 2);
+
+    BulkScheduler.Schedule schedule = scheduler.schedule();
+
+    Assert.assertEquals(1, schedule.getPlaced().size());
+    Assert.assertSame(high, schedule.getPlaced().get(0).getRequest());
+    Assert.assertEquals(TimeRange.fromStartEnd(TIME_0900AM, TIME_1000AM, false),
+        schedule.getPlaced().get(0).getEvent().getWhen());
+    Assert.assertEquals(Arrays.asList(low), schedule.getUnplaced());
+  }
+
+  @Test
+  public void placedMeetingsDoNotCollide() {
+    BulkScheduler scheduler = new BulkScheduler(Arrays.asList(BEFORE, AFTER));
+    MeetingRequest first = new MeetingRequest(Arrays.asList(PERSON_A), 30);
+    MeetingRequest second = new MeetingRequest(Arrays.asList(PERSON_A, PERSON_B), 30);
+    MeetingRequest third = new MeetingRequest(Arrays.asList(PERSON_B), 30);
+    scheduler.add("First", first, 0);
+    scheduler.add("Second", second, 0);
+    scheduler.add("Third", third, 0);
+
+    BulkScheduler.Schedule schedule = scheduler.schedule();
+
+    Assert.assertEquals(TimeRange.fromStartDuration(TIME_0900AM, 30),
+        schedule.getPlaced().get(0).getEvent().getWhen());
+    Assert.assertEquals(TimeRange.fromStartDuration(TIME_0900AM + 30, 30),
+        schedule.getPlaced().get(1).getEvent().getWhen());
+    Assert.assertEquals(TimeRange.fromStartDuration(TIME_0900AM, 30),
+        schedule.getPlaced().get(2).getEvent().getWhen());
+    Assert.assertTrue(schedule.getUnplaced().isEmpty());
+  }
+
+  @Test
+  public void freeOptionalAttendeesAreInvited() {
+    BulkScheduler scheduler = new BulkScheduler(Arrays.asList(BEFORE, AFTER));
+    MeetingRequest blocker = new MeetingRequest(Arrays.asList(PERSON_C), 60);
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), 60);
+    request.addOptionalAttendee(PERSON_B);
+    request.addOptionalAttendee(PERSON_C);
+    scheduler.add("Blocker", blocker, 1);
+    scheduler.add("Meeting", request, 0);
+
+    Event meeting = scheduler.schedule().getPlaced().get(1).getEvent();
+
+    Assert.assertEquals(new HashSet<>(Arrays.asList(PERSON_A, PERSON_B)), meeting.getAttendees());
+  }
+
+  @Test
+  public void laterCallsSeeEarlierPlacements() {
+    BulkScheduler scheduler = new BulkScheduler(Arrays.asList(BEFORE, AFTER));
+    scheduler.add("First", new MeetingRequest(Arrays.asList(PERSON_A), 60), 0);
+    scheduler.schedule();
+    MeetingRequest again = new MeetingRequest(Arrays.asList(PERSON_A), 60);
+    scheduler.add("Again", again, 0);
+
+    Assert.assertEquals(Arrays.asList(again), scheduler.schedule().getUnplaced());
+  }
+
+  @Test
+  public void sameRequestAddedTwiceIsPlacedTwice() {
+    BulkScheduler scheduler = new BulkScheduler(Arrays.asList(BEFORE, AFTER));
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), 30);
+    scheduler.add("Morning", request, 0);
+    scheduler.add("Follow-up", request, 0);
+
+    BulkScheduler.Schedule schedule = scheduler.schedule();
+
+    Assert.assertEquals(2, schedule.getPlaced().size());
+    Assert.assertEquals("Morning", schedule.getPlaced().get(0).getEvent().getTitle());
+    Assert.assertEquals(TimeRange.fromStartDuration(TIME_0900AM, 30),
+        schedule.getPlaced().get(0).getEvent().getWhen());
+    Assert.assertEquals("Follow-up", schedule.getPlaced().get(1).getEvent().getTitle());
+    Assert.assertEquals(TimeRange.fromStartDuration(TIME_0900AM + 30, 30),
+        schedule.getPlaced().get(1).getEvent().getWhen());
+  }
+}
@@ -0,0 +1,55 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class CalendarGeneratorTest {
+  @Test
+  public void sameSeedGivesSameCalendar() {
+    List<Event> first = new CalendarGenerator(1, 50, 4, 2).generate();
+    List<Event> second = new CalendarGenerator(1, 50, 4, 2).generate();
+
+    Assert.assertEquals(first, second);
+  }
+
+  @Test
+  public void eventsUseKnownEmployeesDuringWorkingHours() {
+    CalendarGenerator generator = new CalendarGenerator(2, 30, 3, 1);
+    Set<String> employees = new HashSet<>(generator.getEmployees());
+    TimeRange workingHours = TimeRange.fromStartEnd(
+        TimeRange.getTimeInMinutes(9, 0), TimeRange.getTimeInMinutes(18, 0), false);
+
+    for (Event event : generator.generate()) {
+      Assert.assertTrue(event.toString(), workingHours.contains(event.getWhen()));
+      Assert.assertTrue(employees.containsAll(event.getAttendees()));
+      Assert.assertFalse(event.getAttendees().isEmpty());
+    }
+  }
+
+  @Test
+  public void densityScalesTheNumberOfEvents() {
+    // 2 teams of stand-ups, 16 lunch blocks and 16 * 7 / 3.5 = 32 meetings.
+    Assert.assertEquals(2 + 16 + 32, new CalendarGenerator(3, 16, 7, 1).generate().size());
+  }
+}
@@ -0,0 +1,150 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class CalendarSnapshotTest {
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void mappedSnapshotHasTheSameEvents() throws IOException {
+    List<Event> events = Arrays.asList(Events.events);
+    Path path = folder.newFile("calendar.snapshot").toPath();
+
+    CalendarSnapshot.write(events, path);
+    CalendarSnapshot snapshot = CalendarSnapshot.open(path);
+
+    Assert.assertEquals(events.size(), snapshot.size());
+    Assert.assertEquals(events, snapshot.getEvents());
+    Assert.assertEquals(events.get(3).getWhen(), snapshot.getWhen(3));
+  }
+
+  @Test
+  public void generatedCalendarRoundTrips() throws IOException {
+    List<Event> events = new CalendarGenerator(5, 300, 4, 2).generate();
+
+    CalendarSnapshot snapshot = CalendarSnapshot.wrap(bytes(events));
+
+    Assert.assertEquals(events, snapshot.getEvents());
+  }
+
+  @Test
+  public void manyAttendeesNeedMultiByteDeltas() throws IOException {
+    // The attendees of the last event get string numbers far apart from each other.
+    List<Event> events = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      events.add(new Event("Event " + i, TimeRange.fromStartDuration(i, 30),
+          Arrays.asList("Person " + i)));
+    }
+    events.add(new Event("Everyone", TimeRange.WHOLE_DAY,
+        Arrays.asList("Person 0", "Person 500", "Person 999", "Somebody else")));
+
+    CalendarSnapshot snapshot = CalendarSnapshot.wrap(bytes(events));
+
+    Assert.assertEquals(events, snapshot.getEvents());
+  }
+
+  @Test
+  public void emptyCalendar() throws IOException {
+    CalendarSnapshot snapshot = CalendarSnapshot.wrap(bytes(Collections.<Event>emptyList()));
+
+    Assert.assertTrue(snapshot.getEvents().isEmpty());
+  }
+
+  @Test(expected = IOException.class)
+  public void rejectsOtherFiles() throws IOException {
+    CalendarSnapshot.wrap("[{\"title\":\"Event 1\"}]".getBytes("UTF-8"));
+  }
+
+  @Test
+  public void truncatedFilesFailToOpenOrVerify() throws IOException {
+    byte[] bytes = bytes(Arrays.asList(Events.events));
+
+    for (int length = 0; length < bytes.length; length++) {
+      try {
+        CalendarSnapshot.wrap(Arrays.copyOf(bytes, length)).verify();
+        Assert.fail("Verified a snapshot truncated to " + length + " bytes");
+      } catch (IOException expected) {
+        // Opening only checks the header, so a cut in the attendees is caught by verify.
+      }
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void corruptedRecordFailsToVerify() throws IOException {
+    CalendarSnapshot.wrap(corruptedBytes()).verify();
+  }
+
+  @Test(expected = UncheckedIOException.class)
+  public void corruptedRecordFailsToRead() throws IOException {
+    CalendarSnapshot snapshot = CalendarSnapshot.wrap(corruptedBytes());
+
+    // The other events can still be read.
+    snapshot.getEvent(1);
+    snapshot.getEvent(0);
+  }
+
+  @Test
+  public void namesAreDecodedOnce() throws IOException {
+    List<Event> events = Arrays.asList(
+        new Event("Standup", TimeRange.fromStartDuration(540, 15), Arrays.asList("Person A")),
+        new Event("Standup", TimeRange.fromStartDuration(600, 15), Arrays.asList("Person A")));
+    CalendarSnapshot snapshot = CalendarSnapshot.wrap(bytes(events));
+    snapshot.getEvent(0);
+    int dictionarySize = AttendeeDictionary.getDefault().size();
+
+    for (Event event : snapshot.getEvents()) {
+      Assert.assertSame(snapshot.getTitle(0), event.getTitle());
+      Assert.assertSame(
+          snapshot.getAttendees(0).iterator().next(), event.getAttendees().iterator().next());
+    }
+    Assert.assertEquals(dictionarySize, AttendeeDictionary.getDefault().size());
+    Assert.assertEquals(events.get(1).getAttendees(), snapshot.getAttendees(1));
+  }
+
+  /**
+   * Returns a snapshot of {@code Events.events} where the attendees of the first event point far
+   * past the end of the file.
+   */
+  private static byte[] corruptedBytes() throws IOException {
+    byte[] bytes = bytes(Arrays.asList(Events.events));
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    buffer.putInt(buffer.getInt(20) + 12, Integer.MAX_VALUE - 1);
+    return bytes;
+  }
+
+  private static byte[] bytes(List<Event> events) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    CalendarSnapshot.write(events, out);
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,78 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class EventIndexTest {
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+  private static final String PERSON_C = "Person C";
+
+  private static final Event EVENT_1 =
+      new Event("Event 1", TimeRange.fromStartDuration(480, 30), Arrays.asList(PERSON_A));
+  private static final Event EVENT_2 = new Event(
+      "Event 2", TimeRange.fromStartDuration(540, 30), Arrays.asList(PERSON_A, PERSON_B));
+
+  @Test
+  public void eventsOfOneAttendee() {
+    EventIndex index = new EventIndex(Arrays.asList(EVENT_1, EVENT_2));
+
+    Assert.assertEquals(Arrays.asList(EVENT_1, EVENT_2), index.getEvents(PERSON_A));
+    Assert.assertEquals(Arrays.asList(EVENT_2), index.getEvents(PERSON_B));
+    Assert.assertEquals(Collections.emptyList(), index.getEvents(PERSON_C));
+  }
+
+  @Test
+  public void sharedEventsAreReturnedOnce() {
+    EventIndex index = new EventIndex(Arrays.asList(EVENT_1, EVENT_2));
+
+    Collection<Event> actual = index.getEvents(Arrays.asList(PERSON_B, PERSON_A, PERSON_C));
+
+    Assert.assertEquals(Arrays.asList(EVENT_2, EVENT_1), actual);
+  }
+
+  @Test
+  public void indexedQueryMatchesFullScan() {
+    Collection<Event> events = Arrays.asList(Events.events);
+    EventIndex index = new EventIndex(events);
+    FindMeetingQuery query = new FindMeetingQuery();
+
+    MeetingRequest request = new MeetingRequest(Arrays.asList("Amelia", "Logan"), 30);
+    request.addOptionalAttendee("Emma");
+
+    Assert.assertEquals(query.query(events, request), query.query(index, request));
+  }
+
+  @Test
+  public void recurringEventsAreExpandedForTheDay() {
+    RecurringEvent standUp = new RecurringEvent("Stand-up", TimeRange.fromStartDuration(600, 15),
+        Arrays.asList(PERSON_A, PERSON_C), RecurrenceRule.everyDays(0, 2));
+    EventIndex index = new EventIndex(Arrays.asList(EVENT_1), Arrays.asList(standUp));
+
+    Assert.assertEquals(Arrays.asList(standUp), index.getRecurringEvents(PERSON_C));
+    Assert.assertEquals(Arrays.asList(EVENT_1, standUp.occurrenceOn(2)),
+        index.getEvents(Arrays.asList(PERSON_A, PERSON_C), 2));
+    Assert.assertEquals(Arrays.asList(EVENT_1), index.getEvents(Arrays.asList(PERSON_A), 3));
+  }
+}
@@ -0,0 +1,113 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class EventIntervalTreeTest {
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+
+  private static final Event EVENT_1 =
+      new Event("Event 1", TimeRange.fromStartEnd(480, 540, false), Arrays.asList(PERSON_A));
+  private static final Event EVENT_2 =
+      new Event("Event 2", TimeRange.fromStartEnd(510, 600, false), Arrays.asList(PERSON_B));
+  private static final Event EVENT_3 =
+      new Event("Event 3", TimeRange.fromStartEnd(600, 660, false), Arrays.asList(PERSON_A));
+
+  @Test
+  public void overlappingExcludesTouchingEvents() {
+    EventIntervalTree tree = new EventIntervalTree(Arrays.asList(EVENT_3, EVENT_1, EVENT_2));
+
+    Assert.assertEquals(Arrays.asList(EVENT_1, EVENT_2),
+        tree.overlapping(TimeRange.fromStartEnd(400, 600, false)));
+    Assert.assertEquals(Arrays.asList(EVENT_3),
+        tree.overlapping(TimeRange.fromStartEnd(600, 700, false)));
+  }
+
+  @Test
+  public void stabbing() {
+    EventIntervalTree tree = new EventIntervalTree(Arrays.asList(EVENT_3, EVENT_1, EVENT_2));
+
+    Assert.assertEquals(Arrays.asList(EVENT_1, EVENT_2), tree.at(520));
+    Assert.assertEquals(Arrays.asList(EVENT_3), tree.at(600));
+    Assert.assertEquals(Arrays.asList(), tree.at(700));
+  }
+
+  @Test
+  public void conflictsOnlyIncludeGivenAttendees() {
+    EventIntervalTree tree = new EventIntervalTree(Arrays.asList(EVENT_3, EVENT_1, EVENT_2));
+
+    Assert.assertEquals(Arrays.asList(EVENT_1, EVENT_3),
+        tree.conflicts(TimeRange.WHOLE_DAY, Arrays.asList(PERSON_A)));
+  }
+
+  @Test
+  public void matchesLinearScan() {
+    Random random = new Random(7);
+    List<Event> events = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      int start = random.nextInt(TimeRange.WHOLE_DAY.duration());
+      events.add(new Event("Event " + i,
+          TimeRange.fromStartDuration(start, 1 + random.nextInt(240)), Arrays.asList(PERSON_A)));
+    }
+    EventIntervalTree tree = new EventIntervalTree(events);
+
+    for (int i = 0; i < 200; i++) {
+      TimeRange window = TimeRange.fromStartDuration(
+          random.nextInt(TimeRange.WHOLE_DAY.duration()), 1 + random.nextInt(120));
+      Collection<Event> expected = new HashSet<>();
+      for (Event event : events) {
+        if (event.getWhen().overlaps(window)) {
+          expected.add(event);
+        }
+      }
+      List<Event> actual = tree.overlapping(window);
+
+      Assert.assertEquals(expected.size(), actual.size());
+      Assert.assertEquals(expected, new HashSet<>(actual));
+    }
+  }
+
+  @Test
+  public void windowedQueryOnlySearchesTheWindow() {
+    EventIntervalTree tree = new EventIntervalTree(Arrays.asList(Events.events));
+    MeetingRequest request = new MeetingRequest(Arrays.asList("Amelia"), 30);
+    TimeRange workingHours = TimeRange.fromStartEnd(
+        TimeRange.getTimeInMinutes(9, 0), TimeRange.getTimeInMinutes(17, 0), false);
+
+    Collection<TimeRange> actual = new FindMeetingQuery().query(tree, request, workingHours);
+    Collection<TimeRange> expected = Arrays.asList(
+        TimeRange.fromStartEnd(
+            TimeRange.getTimeInMinutes(10, 0), TimeRange.getTimeInMinutes(11, 0), false),
+        TimeRange.fromStartEnd(
+            TimeRange.getTimeInMinutes(11, 30), TimeRange.getTimeInMinutes(12, 0), false),
+        TimeRange.fromStartEnd(
+            TimeRange.getTimeInMinutes(13, 0), TimeRange.getTimeInMinutes(14, 0), false));
+
+    Assert.assertEquals(expected, actual);
+  }
+}
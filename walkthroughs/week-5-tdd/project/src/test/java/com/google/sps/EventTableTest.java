@@ -0,0 +1,58 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class EventTableTest {
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+
+  @Test
+  public void titlesAndAttendeeSetsAreStoredOnce() {
+    List<Event> events = Arrays.asList(
+        new Event("Team Sync", TimeRange.fromStartDuration(540, 30),
+            Arrays.asList(PERSON_A, PERSON_B)),
+        new Event("Team Sync", TimeRange.fromStartDuration(600, 30),
+            Arrays.asList(PERSON_B, PERSON_A)),
+        new Event("1-on-1", TimeRange.fromStartDuration(660, 30), Arrays.asList(PERSON_A)));
+
+    EventTable table = new EventTable(events);
+
+    Assert.assertEquals(3, table.size());
+    Assert.assertEquals(2, table.titleCount());
+    Assert.assertEquals(2, table.attendeeSetCount());
+    Assert.assertEquals(events, table.asList());
+    Assert.assertSame(table.get(0).getAttendees(), table.get(1).getAttendees());
+  }
+
+  @Test
+  public void queryMatchesFindMeetingQuery() {
+    CalendarGenerator generator = new CalendarGenerator(8, 60, 4, 2);
+    List<Event> events = generator.generate();
+    EventTable table = new EventTable(events);
+    FindMeetingQuery query = new FindMeetingQuery();
+    for (MeetingRequest request : RandomRequests.generate(23, generator.getEmployees(), 200)) {
+      Assert.assertEquals(query.query(events, request), query.query(table, request));
+    }
+  }
+}
@@ -0,0 +1,70 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class FreeSlotsTest {
+  @Test
+  public void noBusyRangesGivesWholeDay() {
+    int[] out = new int[FreeSlots.bufferSize(0)];
+
+    int slots = FreeSlots.find(new int[0], new int[0], 0, 30, out);
+
+    Assert.assertEquals(1, slots);
+    Assert.assertEquals(Arrays.asList(TimeRange.WHOLE_DAY), FreeSlots.toTimeRanges(out, slots));
+  }
+
+  @Test
+  public void nestedRangesAndShortGaps() {
+    // [100, 300) contains [200, 260), and the gaps between [100, 300), [320, 350) and [360, 400)
+    // are too short for the meeting.
+    int[] starts = {600, 0, 200, 100, 320, 360};
+    int[] ends = {700, 60, 260, 300, 350, 400};
+    int[] out = new int[FreeSlots.bufferSize(starts.length)];
+
+    int slots = FreeSlots.find(starts, ends, starts.length, 30, out);
+
+    Assert.assertEquals(
+        Arrays.asList(TimeRange.fromStartEnd(60, 100, false), TimeRange.fromStartEnd(400, 600, false),
+            TimeRange.fromStartEnd(700, TimeRange.WHOLE_DAY.end(), false)),
+        FreeSlots.toTimeRanges(out, slots));
+  }
+
+  @Test
+  public void ignoresRangesPastCountAndEmptyRanges() {
+    int[] starts = {100, 500, 0};
+    int[] ends = {200, 500, TimeRange.WHOLE_DAY.end()};
+    int[] out = new int[FreeSlots.bufferSize(2)];
+
+    int slots = FreeSlots.find(starts, ends, 2, 30, out);
+
+    Assert.assertEquals(
+        Arrays.asList(TimeRange.fromStartEnd(0, 100, false),
+            TimeRange.fromStartEnd(200, TimeRange.WHOLE_DAY.end(), false)),
+        FreeSlots.toTimeRanges(out, slots));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsSmallBuffer() {
+    FreeSlots.find(new int[] {100}, new int[] {200}, 1, 30, new int[2]);
+  }
+}
@@ -0,0 +1,144 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class HorizonCalendarTest {
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+
+  // Days since the epoch of an arbitrary week.
+  private static final long MONDAY = 18_500;
+  private static final long TUESDAY = MONDAY + 1;
+  private static final long WEDNESDAY = MONDAY + 2;
+
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+  private static final int TIME_0500PM = TimeRange.getTimeInMinutes(17, 0);
+
+  private HorizonCalendar calendar;
+
+  @Before
+  public void setUp() {
+    calendar = new HorizonCalendar();
+  }
+
+  private static long at(long day, int minutes) {
+    return day * EpochRange.MINUTES_PER_DAY + minutes;
+  }
+
+  @Test
+  public void slotsCrossMidnight() {
+    // Person A works 9 to 5 on Monday and Tuesday. The only slot of the window is the night.
+    calendar.add(EpochRange.fromStartEnd(at(MONDAY, TIME_0900AM), at(MONDAY, TIME_0500PM)),
+        Arrays.asList(PERSON_A));
+    calendar.add(EpochRange.fromStartEnd(at(TUESDAY, TIME_0900AM), at(TUESDAY, TIME_0500PM)),
+        Arrays.asList(PERSON_A));
+    EpochRange window = EpochRange.fromStartEnd(at(MONDAY, TIME_0900AM), at(TUESDAY, TIME_0500PM));
+
+    List<EpochRange> actual =
+        calendar.query(new MeetingRequest(Arrays.asList(PERSON_A), 60), window);
+    List<EpochRange> expected = Arrays.asList(
+        EpochRange.fromStartEnd(at(MONDAY, TIME_0500PM), at(TUESDAY, TIME_0900AM)));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void recurringEventsAreExpandedInsideTheWindow() {
+    // Same as above with a daily 9 to 5 that never ends.
+    calendar.addRecurring(new RecurringEvent("Work",
+        TimeRange.fromStartEnd(TIME_0900AM, TIME_0500PM, false), Arrays.asList(PERSON_A),
+        RecurrenceRule.daily(0)));
+    EpochRange window = EpochRange.fromStartEnd(at(MONDAY, TIME_0900AM), at(TUESDAY, TIME_0500PM));
+
+    List<EpochRange> actual =
+        calendar.query(new MeetingRequest(Arrays.asList(PERSON_A), 60), window);
+    List<EpochRange> expected = Arrays.asList(
+        EpochRange.fromStartEnd(at(MONDAY, TIME_0500PM), at(TUESDAY, TIME_0900AM)));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void durationLongerThanADay() {
+    calendar.addEvents(MONDAY, Arrays.asList(new Event("Event 1",
+        TimeRange.fromStartEnd(TIME_0900AM, TIME_0500PM, false), Arrays.asList(PERSON_A))));
+    EpochRange window = EpochRange.fromStartEnd(at(MONDAY, 0), at(WEDNESDAY, 0));
+    MeetingRequest request =
+        new MeetingRequest(Arrays.asList(PERSON_A), EpochRange.MINUTES_PER_DAY + 60);
+
+    List<EpochRange> actual = calendar.query(request, window);
+    List<EpochRange> expected =
+        Arrays.asList(EpochRange.fromStartEnd(at(MONDAY, TIME_0500PM), at(WEDNESDAY, 0)));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void busyTimesAreClippedToTheWindow() {
+    calendar.add(EpochRange.fromStartEnd(at(MONDAY, 0), at(TUESDAY, TIME_0900AM)),
+        Arrays.asList(PERSON_A));
+    calendar.add(EpochRange.fromStartEnd(at(TUESDAY, TIME_0500PM), at(WEDNESDAY, TIME_0900AM)),
+        Arrays.asList(PERSON_A));
+
+    List<EpochRange> actual = calendar.query(
+        new MeetingRequest(Arrays.asList(PERSON_A), 30), EpochRange.fromDay(TUESDAY));
+    List<EpochRange> expected = Arrays.asList(
+        EpochRange.fromStartEnd(at(TUESDAY, TIME_0900AM), at(TUESDAY, TIME_0500PM)));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void optionalAttendeeBlockingEverythingIsIgnored() {
+    calendar.add(EpochRange.fromStartEnd(at(MONDAY, TIME_0900AM), at(MONDAY, TIME_0500PM)),
+        Arrays.asList(PERSON_A));
+    calendar.add(EpochRange.fromStartEnd(at(MONDAY, 0), at(TUESDAY, 0)), Arrays.asList(PERSON_B));
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), 30);
+    request.addOptionalAttendee(PERSON_B);
+
+    List<EpochRange> actual = calendar.query(request, EpochRange.fromDay(MONDAY));
+    List<EpochRange> expected = Arrays.asList(
+        EpochRange.fromStartEnd(at(MONDAY, 0), at(MONDAY, TIME_0900AM)),
+        EpochRange.fromStartEnd(at(MONDAY, TIME_0500PM), at(TUESDAY, 0)));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void matchesFindMeetingQueryForOneDay() {
+    calendar.addEvents(TUESDAY, Arrays.asList(Events.events));
+    MeetingRequest request = new MeetingRequest(Arrays.asList("Amelia", "Logan"), 30);
+    request.addOptionalAttendee("Liam");
+
+    List<EpochRange> actual = calendar.query(request, EpochRange.fromDay(TUESDAY));
+    List<EpochRange> expected = new ArrayList<>();
+    for (TimeRange range : new FindMeetingQuery().query(Arrays.asList(Events.events), request)) {
+      expected.add(EpochRange.fromTimeRange(TUESDAY, range));
+    }
+
+    Assert.assertEquals(expected, actual);
+  }
+}
@@ -0,0 +1,174 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests {@code FindMeetingQuery.queryMaximizingOptional}, which is the same for every engine. */
+@RunWith(JUnit4.class)
+public final class MaximizingOptionalQueryTest {
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+  private static final String PERSON_C = "Person C";
+  private static final String PERSON_D = "Person D";
+
+  private static final int TIME_0800AM = TimeRange.getTimeInMinutes(8, 0);
+  private static final int TIME_0820AM = TimeRange.getTimeInMinutes(8, 20);
+  private static final int TIME_0830AM = TimeRange.getTimeInMinutes(8, 30);
+  private static final int TIME_0840AM = TimeRange.getTimeInMinutes(8, 40);
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+  private static final int TIME_1000AM = TimeRange.getTimeInMinutes(10, 0);
+  private static final int TIME_1100AM = TimeRange.getTimeInMinutes(11, 00);
+
+  private static final int DURATION_15_MINUTES = 15;
+  private static final int DURATION_30_MINUTES = 30;
+  private static final int DURATION_60_MINUTES = 60;
+
+  private final FindMeetingQuery query = new FindMeetingQuery();
+
+  @Test
+  public void maximizesOptionalAttendeesWhenNotAllFit() {
+    // C is busy all day, so query() would ignore every optional attendee. B and D can still both
+    // make it around A's event.
+    //
+    // Events  :       |--A--|
+    // Optional: |-----------------C-----------------|
+    //                       |--B--|
+    //                                   |--D--|
+    // Day     : |-----------------------------------|
+    // Options : |--2--|           |--2--|     |--2--|
+
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartDuration(TIME_0800AM, DURATION_30_MINUTES),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 2", TimeRange.WHOLE_DAY, Arrays.asList(PERSON_C)),
+        new Event("Event 3", TimeRange.fromStartDuration(TIME_0830AM, DURATION_30_MINUTES),
+            Arrays.asList(PERSON_B)),
+        new Event("Event 4", TimeRange.fromStartDuration(TIME_1000AM, DURATION_60_MINUTES),
+            Arrays.asList(PERSON_D)));
+
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+    request.addOptionalAttendee(PERSON_B);
+    request.addOptionalAttendee(PERSON_C);
+    request.addOptionalAttendee(PERSON_D);
+
+    List<MeetingOption> actual = query.queryMaximizingOptional(events, request);
+    List<MeetingOption> expected = Arrays.asList(
+        new MeetingOption(TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0800AM, false), 2),
+        new MeetingOption(TimeRange.fromStartEnd(TIME_0900AM, TIME_1000AM, false), 2),
+        new MeetingOption(TimeRange.fromStartEnd(TIME_1100AM, TimeRange.END_OF_DAY, true), 2));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void maximizingOptionalFallsBackToRequiredOnly() {
+    // Events  : |--A--|     |----A----|
+    // Optional:       |-B-|
+    // Day     : |---------------------|
+    // Options :       |-----|
+
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0830AM, false),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 2", TimeRange.fromStartEnd(TIME_0900AM, TimeRange.END_OF_DAY, true),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 3", TimeRange.fromStartDuration(TIME_0830AM, DURATION_15_MINUTES),
+            Arrays.asList(PERSON_B)));
+
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+    request.addOptionalAttendee(PERSON_B);
+
+    List<MeetingOption> actual = query.queryMaximizingOptional(events, request);
+    List<MeetingOption> expected = Arrays.asList(
+        new MeetingOption(TimeRange.fromStartDuration(TIME_0830AM, DURATION_30_MINUTES), 0));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void maximizingOptionalWithNoRoomAtAll() {
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.WHOLE_DAY, Arrays.asList(PERSON_A)));
+
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+    request.addOptionalAttendee(PERSON_B);
+
+    Assert.assertEquals(Arrays.asList(), query.queryMaximizingOptional(events, request));
+  }
+
+  @Test
+  public void optionalAttendeesMustBeFreeForTheWholeMeeting() {
+    // B and D are each free for 20 minutes, one after the other. Together they cover 40 minutes,
+    // but no 30 minute meeting fits either of them.
+    //
+    // Optional: |------B------|  |------B------|
+    //           |----D----|  |--------D--------|
+    // Day     : |------------------------------|
+    // Options : |--------------0---------------|
+
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0820AM, false),
+            Arrays.asList(PERSON_B)),
+        new Event("Event 2", TimeRange.fromStartEnd(TIME_0840AM, TimeRange.END_OF_DAY, true),
+            Arrays.asList(PERSON_B)),
+        new Event("Event 3", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0800AM, false),
+            Arrays.asList(PERSON_D)),
+        new Event("Event 4", TimeRange.fromStartEnd(TIME_0820AM, TimeRange.END_OF_DAY, true),
+            Arrays.asList(PERSON_D)));
+
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+    request.addOptionalAttendee(PERSON_B);
+    request.addOptionalAttendee(PERSON_D);
+
+    List<MeetingOption> actual = query.queryMaximizingOptional(events, request);
+    List<MeetingOption> expected = Arrays.asList(new MeetingOption(TimeRange.WHOLE_DAY, 0));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void differentOptionalAttendeesGiveSeparateOptions() {
+    // B is free until 9:00 and D from 8:30, so a meeting at 8:30 suits both. Earlier meetings only
+    // suit B and later ones only D.
+    //
+    // Optional:             |---------B---------|
+    //           |----D----|
+    // Day     : |-------------------------------|
+    // Options :       |2|
+
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartEnd(TIME_0900AM, TimeRange.END_OF_DAY, true),
+            Arrays.asList(PERSON_B)),
+        new Event("Event 2", TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0830AM, false),
+            Arrays.asList(PERSON_D)));
+
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+    request.addOptionalAttendee(PERSON_B);
+    request.addOptionalAttendee(PERSON_D);
+
+    List<MeetingOption> actual = query.queryMaximizingOptional(events, request);
+    List<MeetingOption> expected = Arrays.asList(
+        new MeetingOption(TimeRange.fromStartDuration(TIME_0830AM, DURATION_30_MINUTES), 2));
+
+    Assert.assertEquals(expected, actual);
+  }
+}
@@ -0,0 +1,75 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class MutableEventSourceTest {
+  private static final Event EVENT_1 =
+      new Event("Event 1", TimeRange.fromStartDuration(480, 30), Arrays.asList("Person A"));
+  private static final Event EVENT_2 =
+      new Event("Event 2", TimeRange.fromStartDuration(540, 30), Arrays.asList("Person B"));
+
+  @Test
+  public void changesAreReturnedInOrder() {
+    MutableEventSource source = new MutableEventSource(Arrays.asList(EVENT_1));
+    long start = source.getVersion();
+    source.add(EVENT_2);
+    source.remove(EVENT_1);
+
+    EventChanges changes = source.getChangesSince(start);
+
+    Assert.assertEquals(2, changes.size());
+    Assert.assertEquals(EVENT_2, changes.getEvent(0));
+    Assert.assertTrue(changes.isAdded(0));
+    Assert.assertEquals(EVENT_1, changes.getEvent(1));
+    Assert.assertFalse(changes.isAdded(1));
+    Assert.assertEquals(source.getVersion(), changes.getVersion());
+    Assert.assertEquals(Arrays.asList(EVENT_2), source.getEvents());
+  }
+
+  @Test
+  public void noChangesSinceTheCurrentVersion() {
+    MutableEventSource source = new MutableEventSource(Arrays.asList(EVENT_1));
+    source.add(EVENT_2);
+
+    Assert.assertEquals(0, source.getChangesSince(source.getVersion()).size());
+  }
+
+  @Test
+  public void forgottenChangesAreNull() {
+    MutableEventSource source = new MutableEventSource(Collections.<Event>emptyList(), 1);
+    source.add(EVENT_1);
+    source.add(EVENT_2);
+
+    Assert.assertNull(source.getChangesSince(0));
+    Assert.assertEquals(EVENT_2, source.getChangesSince(1).getEvent(0));
+  }
+
+  @Test
+  public void removingAMissingEventChangesNothing() {
+    MutableEventSource source = new MutableEventSource(Arrays.asList(EVENT_1));
+
+    Assert.assertFalse(source.remove(EVENT_2));
+    Assert.assertEquals(0, source.getVersion());
+  }
+}
@@ -0,0 +1,81 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class ParallelMeetingQueryTest {
+  private ForkJoinPool pool;
+
+  @Before
+  public void setUp() {
+    pool = new ForkJoinPool(4);
+  }
+
+  @After
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  @Test
+  public void matchesSequentialQueryWhenSplit() {
+    Random random = new Random(3);
+    List<String> people = new ArrayList<>();
+    for (int i = 0; i < 40; i++) {
+      people.add("Person " + i);
+    }
+    List<Event> events = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      int start = random.nextInt(TimeRange.WHOLE_DAY.duration());
+      events.add(new Event("Event " + i,
+          TimeRange.fromStartEnd(start, Math.min(start + 15 + random.nextInt(60),
+              TimeRange.WHOLE_DAY.end()), false),
+          Arrays.asList(people.get(random.nextInt(people.size())))));
+    }
+    // A threshold this small forces every query to be split into many chunks.
+    ParallelMeetingQuery parallel = new ParallelMeetingQuery(pool, 16);
+    FindMeetingQuery sequential = new FindMeetingQuery();
+
+    for (int round = 0; round < 20; round++) {
+      MeetingRequest request =
+          new MeetingRequest(people.subList(0, 1 + random.nextInt(10)), 15 + random.nextInt(30));
+      request.addOptionalAttendee(people.get(20 + random.nextInt(20)));
+
+      Assert.assertEquals(sequential.query(events, request), parallel.query(events, request));
+    }
+  }
+
+  @Test
+  public void smallCalendarsStaySequential() {
+    ParallelMeetingQuery parallel = new ParallelMeetingQuery(pool, 100);
+    MeetingRequest request = new MeetingRequest(Arrays.asList("Amelia", "Logan"), 30);
+
+    Assert.assertEquals(new FindMeetingQuery().query(Arrays.asList(Events.events), request),
+        parallel.query(Arrays.asList(Events.events), request));
+    Assert.assertEquals(0, pool.getStealCount());
+  }
+}
@@ -0,0 +1,108 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class QueryMetricsTest {
+  @Test
+  public void histogramBucketsByPowersOfTwo() {
+    Histogram histogram = new Histogram();
+    histogram.record(0);
+    histogram.record(1);
+    histogram.record(3);
+    histogram.record(4);
+    histogram.record(100);
+
+    Assert.assertEquals(5, histogram.getCount());
+    Assert.assertEquals(108, histogram.getSum());
+    Assert.assertEquals(100, histogram.getMax());
+    Assert.assertEquals(2, histogram.getBucketValues(0));
+    Assert.assertEquals(2, histogram.getBucketValues(2));
+    Assert.assertEquals(1, histogram.getBucketValues(7));
+  }
+
+  @Test
+  public void percentileIsTheBoundOfItsBucket() {
+    Histogram histogram = new Histogram();
+    for (int i = 1; i <= 100; i++) {
+      histogram.record(i);
+    }
+
+    Assert.assertEquals(64, histogram.getPercentile(0.5));
+    Assert.assertEquals(100, histogram.getPercentile(0.99));
+    Assert.assertEquals(0, new Histogram().getPercentile(0.5));
+  }
+
+  @Test
+  public void onlyComputedQueriesCountTheirSizes() {
+    QueryMetrics metrics = new QueryMetrics();
+    QueryStats computed = new QueryStats();
+    computed.addEventsScanned(10);
+    computed.addEventsMatched(4);
+    QueryStats cached = new QueryStats();
+    cached.setCacheHit(true);
+
+    metrics.record(computed);
+    metrics.record(cached);
+
+    Assert.assertEquals(1, metrics.getCacheHits());
+    Assert.assertEquals(1, metrics.getCacheMisses());
+    Assert.assertEquals(1, metrics.getHistograms().get("query_events_scanned").getCount());
+    Assert.assertEquals(10, metrics.getHistograms().get("query_events_scanned").getSum());
+    Assert.assertEquals(2, metrics.getHistograms().get("query_total_micros").getCount());
+  }
+
+  @Test
+  public void keepsTheSlowestQueries() {
+    QueryMetrics metrics = new QueryMetrics();
+    for (int i = 1; i <= QueryMetrics.SLOWEST_KEPT + 5; i++) {
+      QueryStats stats = new QueryStats();
+      stats.setComputeNanos(TimeUnit.MILLISECONDS.toNanos(i));
+      metrics.record(stats);
+    }
+
+    List<QueryStats> slowest = metrics.getSlowest();
+    Assert.assertEquals(QueryMetrics.SLOWEST_KEPT, slowest.size());
+    Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(QueryMetrics.SLOWEST_KEPT + 5),
+        slowest.get(0).getTotalNanos());
+    Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(6),
+        slowest.get(slowest.size() - 1).getTotalNanos());
+  }
+
+  @Test
+  public void textHasCumulativeBuckets() {
+    QueryMetrics metrics = new QueryMetrics();
+    QueryStats stats = new QueryStats();
+    stats.setSlotsReturned(3);
+    metrics.record(stats);
+
+    String text = metrics.toText();
+
+    Assert.assertTrue(text.contains("query_slots_returned_bucket{le=\"1\"} 0\n"));
+    Assert.assertTrue(text.contains("query_slots_returned_bucket{le=\"2\"} 0\n"));
+    Assert.assertTrue(text.contains("query_slots_returned_bucket{le=\"4\"} 1\n"));
+    Assert.assertTrue(text.contains("query_slots_returned_bucket{le=\"+Inf\"} 1\n"));
+    Assert.assertTrue(text.contains("query_slots_returned_sum 3\n"));
+    Assert.assertTrue(text.contains("query_cache_misses_total 1\n"));
+  }
+}
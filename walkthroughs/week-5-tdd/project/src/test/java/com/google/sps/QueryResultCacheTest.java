@@ -0,0 +1,140 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class QueryResultCacheTest {
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+  private static final String PERSON_C = "Person C";
+
+  private static final Collection<TimeRange> ANSWER =
+      Arrays.asList(TimeRange.fromStartEnd(60, 120, false));
+
+  private final AtomicLong now = new AtomicLong();
+  private final AtomicInteger queries = new AtomicInteger();
+  private final Function<MeetingRequest, Collection<TimeRange>> query = request -> {
+    queries.incrementAndGet();
+    return ANSWER;
+  };
+
+  @Test
+  public void attendeeOrderDoesNotMatter() {
+    QueryResultCache cache = new QueryResultCache(10, 1000, now::get);
+    MeetingRequest request1 = new MeetingRequest(Arrays.asList(PERSON_A, PERSON_B), 30);
+    request1.addOptionalAttendee(PERSON_C);
+    MeetingRequest request2 = new MeetingRequest(Arrays.asList(PERSON_B, PERSON_A), 30);
+    request2.addOptionalAttendee(PERSON_C);
+
+    Assert.assertEquals(ANSWER, cache.get(request1, 0, query));
+    Assert.assertEquals(ANSWER, cache.get(request2, 0, query));
+
+    Assert.assertEquals(1, queries.get());
+    Assert.assertEquals(1, cache.getHits());
+    Assert.assertEquals(1, cache.getMisses());
+  }
+
+  @Test
+  public void differentRequestsAreQueriedSeparately() {
+    QueryResultCache cache = new QueryResultCache(10, 1000, now::get);
+    MeetingRequest required = new MeetingRequest(Arrays.asList(PERSON_A, PERSON_B), 30);
+    MeetingRequest optional = new MeetingRequest(Arrays.asList(PERSON_A), 30);
+    optional.addOptionalAttendee(PERSON_B);
+    MeetingRequest longer = new MeetingRequest(Arrays.asList(PERSON_A, PERSON_B), 60);
+
+    cache.get(required, 0, query);
+    cache.get(optional, 0, query);
+    cache.get(longer, 0, query);
+
+    Assert.assertEquals(3, queries.get());
+    Assert.assertEquals(0, cache.getHits());
+  }
+
+  @Test
+  public void newVersionDropsAnswers() {
+    QueryResultCache cache = new QueryResultCache(10, 1000, now::get);
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), 30);
+
+    cache.get(request, 1, query);
+    cache.get(request, 2, query);
+    cache.get(request, 2, query);
+
+    Assert.assertEquals(2, queries.get());
+    Assert.assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void olderVersionKeepsNewerAnswers() {
+    QueryResultCache cache = new QueryResultCache(10, 1000, now::get);
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), 30);
+
+    cache.get(request, 2, query);
+    // A request that read the version just before an update arrives late.
+    cache.get(request, 1, query);
+    cache.get(request, 1, query);
+    cache.get(request, 2, query);
+
+    Assert.assertEquals(3, queries.get());
+    Assert.assertEquals(1, cache.getHits());
+    Assert.assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void answersExpire() {
+    QueryResultCache cache = new QueryResultCache(10, 1000, now::get);
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), 30);
+
+    cache.get(request, 0, query);
+    now.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+    cache.get(request, 0, query);
+    now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+    cache.get(request, 0, query);
+
+    Assert.assertEquals(2, queries.get());
+    Assert.assertEquals(1, cache.getHits());
+  }
+
+  @Test
+  public void leastRecentlyUsedAnswerIsEvicted() {
+    QueryResultCache cache = new QueryResultCache(2, 1000, now::get);
+    MeetingRequest requestA = new MeetingRequest(Arrays.asList(PERSON_A), 30);
+    MeetingRequest requestB = new MeetingRequest(Arrays.asList(PERSON_B), 30);
+    MeetingRequest requestC = new MeetingRequest(Arrays.asList(PERSON_C), 30);
+
+    cache.get(requestA, 0, query);
+    cache.get(requestB, 0, query);
+    // Using A makes B the least recently used answer.
+    cache.get(requestA, 0, query);
+    cache.get(requestC, 0, query);
+    Assert.assertEquals(3, queries.get());
+
+    cache.get(requestA, 0, query);
+    Assert.assertEquals(3, queries.get());
+    cache.get(requestB, 0, query);
+    Assert.assertEquals(4, queries.get());
+  }
+}
@@ -0,0 +1,67 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import java.util.Collection;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests the counts that {@code FindMeetingQuery} adds to {@code QueryStats}. */
+@RunWith(JUnit4.class)
+public final class QueryStatsTest {
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+  private static final String PERSON_C = "Person C";
+
+  private static final int TIME_0800AM = TimeRange.getTimeInMinutes(8, 0);
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+  private static final int TIME_1000AM = TimeRange.getTimeInMinutes(10, 0);
+
+  private static final int DURATION_30_MINUTES = 30;
+
+  private final FindMeetingQuery query = new FindMeetingQuery();
+
+  @Test
+  public void statsCountWhatTheQueryLookedAt() {
+    // Events  : |--A--|  |-B-|    |--C--|
+    // Optional:          |-B-|
+    // Day     : |---------------------|
+    // Options :       |--|   |----|
+
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartDuration(TIME_0800AM, DURATION_30_MINUTES),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 2", TimeRange.fromStartDuration(TIME_0900AM, DURATION_30_MINUTES),
+            Arrays.asList(PERSON_B)),
+        new Event("Event 3", TimeRange.fromStartDuration(TIME_1000AM, DURATION_30_MINUTES),
+            Arrays.asList(PERSON_C)));
+
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+    request.addOptionalAttendee(PERSON_B);
+
+    QueryStats stats = new QueryStats();
+    Collection<TimeRange> actual = query.query(events, request, stats);
+
+    Assert.assertEquals(query.query(events, request), actual);
+    Assert.assertEquals(3, stats.getEventsScanned());
+    Assert.assertEquals(2, stats.getEventsMatched());
+    // One busy range for the required attendee alone, two with the optional one.
+    Assert.assertEquals(3, stats.getBusyRanges());
+    Assert.assertEquals(actual.size(), stats.getSlotsReturned());
+  }
+}
@@ -0,0 +1,52 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Random meeting requests over the people of a calendar, for tests that compare two ways of
+ * answering the same queries. The same seed always gives the same requests.
+ */
+final class RandomRequests {
+  private RandomRequests() {
+    // Disallow instances.
+  }
+
+  /**
+   * Returns {@code count} requests, each for two required people of {@code people}, with a third
+   * one as optional attendee half of the time, lasting between 15 minutes and 2 hours.
+   */
+  static List<MeetingRequest> generate(long seed, List<String> people, int count) {
+    Random random = new Random(seed);
+    List<MeetingRequest> requests = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      MeetingRequest request = new MeetingRequest(
+          Arrays.asList(pick(random, people), pick(random, people)), 15 * (1 + random.nextInt(8)));
+      if (random.nextBoolean()) {
+        request.addOptionalAttendee(pick(random, people));
+      }
+      requests.add(request);
+    }
+    return requests;
+  }
+
+  private static String pick(Random random, List<String> people) {
+    return people.get(random.nextInt(people.size()));
+  }
+}
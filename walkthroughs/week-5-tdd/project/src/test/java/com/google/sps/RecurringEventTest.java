@@ -0,0 +1,93 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class RecurringEventTest {
+  private static final String PERSON_A = "Person A";
+
+  // Day 0 of the epoch is Thursday 1 January 1970.
+  private static final long THURSDAY = 0;
+  private static final long FRIDAY = 1;
+  private static final long SATURDAY = 2;
+  private static final long MONDAY = 4;
+
+  private static final TimeRange STAND_UP = TimeRange.fromStartDuration(9 * 60, 15);
+
+  @Test
+  public void weekdayRuleSkipsWeekends() {
+    RecurrenceRule rule = RecurrenceRule.weekdays(THURSDAY);
+
+    Assert.assertTrue(rule.occursOn(FRIDAY));
+    Assert.assertFalse(rule.occursOn(SATURDAY));
+    Assert.assertEquals(MONDAY, rule.nextOn(SATURDAY));
+  }
+
+  @Test
+  public void ruleEndsOnItsLastDay() {
+    RecurrenceRule rule = RecurrenceRule.weekly(THURSDAY).until(14);
+
+    Assert.assertEquals(7, rule.nextOn(FRIDAY));
+    Assert.assertTrue(rule.occursOn(14));
+    Assert.assertEquals(RecurrenceRule.NONE, rule.nextOn(15));
+  }
+
+  @Test
+  public void occurrenceOnADay() {
+    RecurringEvent event = new RecurringEvent(
+        "Stand-up", STAND_UP, Arrays.asList(PERSON_A), RecurrenceRule.weekdays(THURSDAY));
+
+    Assert.assertEquals(new Event("Stand-up", STAND_UP, Arrays.asList(PERSON_A)),
+        event.occurrenceOn(MONDAY));
+    Assert.assertNull(event.occurrenceOn(SATURDAY));
+  }
+
+  @Test
+  public void occurrencesInsideAWindow() {
+    RecurringEvent event = new RecurringEvent(
+        "Stand-up", STAND_UP, Arrays.asList(PERSON_A), RecurrenceRule.weekdays(THURSDAY));
+    // From Thursday after the stand-up to Monday during the stand-up.
+    EpochRange window = EpochRange.fromStartEnd(
+        THURSDAY * EpochRange.MINUTES_PER_DAY + STAND_UP.end(),
+        MONDAY * EpochRange.MINUTES_PER_DAY + STAND_UP.start() + 5);
+
+    List<EpochRange> actual = new ArrayList<>();
+    for (EpochRange occurrence : event.occurrences(window)) {
+      actual.add(occurrence);
+    }
+    List<EpochRange> expected = Arrays.asList(
+        EpochRange.fromTimeRange(FRIDAY, STAND_UP), EpochRange.fromTimeRange(MONDAY, STAND_UP));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void neverEndingRuleOverAShortWindow() {
+    RecurringEvent event = new RecurringEvent(
+        "Stand-up", STAND_UP, Arrays.asList(PERSON_A), RecurrenceRule.daily(THURSDAY));
+
+    Assert.assertFalse(event.occurrences(EpochRange.fromStartDuration(
+        SATURDAY * EpochRange.MINUTES_PER_DAY, STAND_UP.start())).iterator().hasNext());
+  }
+}
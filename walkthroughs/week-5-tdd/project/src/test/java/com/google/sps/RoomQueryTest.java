@@ -0,0 +1,117 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests {@code FindMeetingQuery.queryWithRooms}, which is the same for every engine. */
+@RunWith(JUnit4.class)
+public final class RoomQueryTest {
+  private static final Collection<Event> NO_EVENTS = Collections.emptySet();
+
+  private static final String PERSON_A = "Person A";
+  private static final String PERSON_B = "Person B";
+  private static final String PERSON_C = "Person C";
+
+  private static final int TIME_0800AM = TimeRange.getTimeInMinutes(8, 0);
+  private static final int TIME_0830AM = TimeRange.getTimeInMinutes(8, 30);
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+
+  private static final int DURATION_30_MINUTES = 30;
+
+  private final FindMeetingQuery query = new FindMeetingQuery();
+
+  @Test
+  public void roomsArePairedWithSlots() {
+    // Events  :       |--A--|
+    // Medium  :             |--|
+    // Large   : |-----|
+    // Day     : |-----------------------------|
+    // Medium  : |--1--|        |-------3-------|
+    // Large   :             |--------2---------|
+    //
+    // The small room is booked all day and has too few seats anyway.
+
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartDuration(TIME_0800AM, DURATION_30_MINUTES),
+            Arrays.asList(PERSON_A)));
+    Room small = new Room("Small", 1, Arrays.asList(TimeRange.WHOLE_DAY));
+    Room medium = new Room("Medium", 4,
+        Arrays.asList(TimeRange.fromStartDuration(TIME_0830AM, DURATION_30_MINUTES)));
+    Room large = new Room("Large", 10,
+        Arrays.asList(TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0800AM, false)));
+
+    MeetingRequest request =
+        new MeetingRequest(Arrays.asList(PERSON_A, PERSON_B), DURATION_30_MINUTES);
+
+    List<RoomOption> actual =
+        query.queryWithRooms(events, Arrays.asList(large, small, medium), request);
+    List<RoomOption> expected = Arrays.asList(
+        new RoomOption(TimeRange.fromStartEnd(TimeRange.START_OF_DAY, TIME_0800AM, false), medium),
+        new RoomOption(TimeRange.fromStartEnd(TIME_0830AM, TimeRange.END_OF_DAY, true), large),
+        new RoomOption(TimeRange.fromStartEnd(TIME_0900AM, TimeRange.END_OF_DAY, true), medium));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void roomsMustSeatTheHeadcount() {
+    Room room = new Room("Room", 4, Collections.<TimeRange>emptyList());
+    MeetingRequest request =
+        new MeetingRequest(Arrays.asList(PERSON_A, PERSON_B), DURATION_30_MINUTES);
+    request.setHeadcount(5);
+
+    Assert.assertEquals(Arrays.asList(),
+        query.queryWithRooms(NO_EVENTS, Arrays.asList(room), request));
+  }
+
+  @Test
+  public void roomsOnlySeatRequiredAttendeesWhenOptionalOnesCannotCome() {
+    // B and C are optional and busy all day, so only A comes and a room for one is enough.
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.WHOLE_DAY, Arrays.asList(PERSON_B, PERSON_C)));
+    Room small = new Room("Small", 1, Collections.<TimeRange>emptyList());
+
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+    request.addOptionalAttendee(PERSON_B);
+    request.addOptionalAttendee(PERSON_C);
+
+    List<RoomOption> actual = query.queryWithRooms(events, Arrays.asList(small), request);
+    List<RoomOption> expected = Arrays.asList(new RoomOption(TimeRange.WHOLE_DAY, small));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void explicitHeadcountAppliesWithoutOptionalAttendees() {
+    Collection<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.WHOLE_DAY, Arrays.asList(PERSON_B)));
+    Room small = new Room("Small", 1, Collections.<TimeRange>emptyList());
+
+    MeetingRequest request = new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES);
+    request.addOptionalAttendee(PERSON_B);
+    request.setHeadcount(3);
+
+    Assert.assertEquals(
+        Arrays.asList(), query.queryWithRooms(events, Arrays.asList(small), request));
+  }
+}
@@ -0,0 +1,175 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Runs the coordinator against workers listening on local ports. */
+@RunWith(JUnit4.class)
+public final class ShardCoordinatorTest {
+  private static final int SHARDS = 3;
+  private static final Pattern SERVING = Pattern.compile("on port (\\d+)$");
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private final List<AvailabilityWorker> workers = new ArrayList<>();
+  private final List<Process> processes = new ArrayList<>();
+
+  @After
+  public void tearDown() {
+    for (AvailabilityWorker worker : workers) {
+      worker.stop();
+    }
+    for (Process process : processes) {
+      process.destroy();
+    }
+  }
+
+  private ShardCoordinator startShards(List<Event> events) throws IOException {
+    List<URL> urls = new ArrayList<>();
+    for (List<Event> shardEvents : ShardCoordinator.partition(events, SHARDS)) {
+      AvailabilityWorker worker = new AvailabilityWorker(shardEvents);
+      workers.add(worker);
+      urls.add(new URL("http://localhost:" + worker.start(0) + "/"));
+    }
+    return new ShardCoordinator(urls);
+  }
+
+  @Test
+  public void partitionKeepsEveryAttendeesEvents() {
+    List<Event> events = Arrays.asList(Events.events);
+
+    List<List<Event>> partitions = ShardCoordinator.partition(events, SHARDS);
+
+    for (Event event : events) {
+      for (String attendee : event.getAttendees()) {
+        Assert.assertTrue(
+            partitions.get(ShardCoordinator.shardOf(attendee, SHARDS)).contains(event));
+      }
+    }
+  }
+
+  /**
+   * Starts every shard in its own JVM, running {@code AvailabilityWorker.main} on a snapshot of
+   * {@code events}.
+   */
+  private ShardCoordinator startShardProcesses(List<Event> events) throws IOException {
+    Path snapshot = folder.newFile("calendar.snapshot").toPath();
+    CalendarSnapshot.write(events, snapshot);
+    String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+
+    List<URL> urls = new ArrayList<>();
+    for (int shard = 0; shard < SHARDS; shard++) {
+      Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+          AvailabilityWorker.class.getName(), "0", Integer.toString(shard),
+          Integer.toString(SHARDS), snapshot.toString())
+          .redirectError(ProcessBuilder.Redirect.INHERIT)
+          .start();
+      processes.add(process);
+      BufferedReader out = new BufferedReader(
+          new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+      String line = out.readLine();
+      Matcher matcher = SERVING.matcher(line == null ? "" : line);
+      if (!matcher.find()) {
+        throw new IOException("Worker " + shard + " did not start: " + line);
+      }
+      // No trailing slash: the coordinator adds it.
+      urls.add(new URL("http://localhost:" + matcher.group(1)));
+    }
+    return new ShardCoordinator(urls);
+  }
+
+  @Test
+  public void shardKeepsTheSameEventsAsPartition() {
+    List<Event> events = new CalendarGenerator(9, 50, 4, 2).generate();
+
+    List<List<Event>> partitions = ShardCoordinator.partition(events, SHARDS);
+
+    for (int shard = 0; shard < SHARDS; shard++) {
+      Assert.assertEquals(partitions.get(shard), ShardCoordinator.shard(events, shard, SHARDS));
+    }
+  }
+
+  @Test
+  public void workerProcessesAnswerLikeFindMeetingQuery() throws IOException {
+    CalendarGenerator generator = new CalendarGenerator(11, 50, 4, 2);
+    List<Event> events = generator.generate();
+    FindMeetingQuery query = new FindMeetingQuery();
+    try (ShardCoordinator coordinator = startShardProcesses(events)) {
+      for (MeetingRequest request : RandomRequests.generate(31, generator.getEmployees(), 20)) {
+        Assert.assertEquals(query.query(events, request), coordinator.query(request));
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void workerUrlsCannotHaveAQuery() throws IOException {
+    new ShardCoordinator(Arrays.asList(new URL("http://localhost:8080/?shard=1")));
+  }
+
+  @Test
+  public void shardedQueryMatchesFindMeetingQuery() throws IOException {
+    CalendarGenerator generator = new CalendarGenerator(9, 50, 4, 2);
+    List<Event> events = generator.generate();
+    FindMeetingQuery query = new FindMeetingQuery();
+    try (ShardCoordinator coordinator = startShards(events)) {
+      for (MeetingRequest request : RandomRequests.generate(29, generator.getEmployees(), 50)) {
+        Assert.assertEquals(query.query(events, request), coordinator.query(request));
+      }
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void unreachableWorkerFailsTheQuery() throws IOException {
+    AvailabilityWorker worker = new AvailabilityWorker(Arrays.asList(Events.events));
+    int port = worker.start(0);
+    worker.stop();
+
+    try (ShardCoordinator coordinator =
+        new ShardCoordinator(Arrays.asList(new URL("http://localhost:" + port + "/")))) {
+      coordinator.query(new MeetingRequest(Arrays.asList("Amelia"), 30));
+    }
+  }
+
+  @Test(expected = IOException.class, timeout = 10000)
+  public void hungWorkerFailsTheQuery() throws IOException {
+    // The socket accepts connections but never answers.
+    try (ServerSocket hung = new ServerSocket(0);
+        ShardCoordinator coordinator = new ShardCoordinator(
+            Arrays.asList(new URL("http://localhost:" + hung.getLocalPort() + "/")), 200)) {
+      coordinator.query(new MeetingRequest(Arrays.asList("Amelia"), 30));
+    }
+  }
+}
@@ -0,0 +1,59 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests the queries over events streamed in start order, which are the same for every engine. */
+@RunWith(JUnit4.class)
+public final class StreamingQueryTest {
+  private static final String PERSON_A = "Person A";
+
+  private static final int TIME_0800AM = TimeRange.getTimeInMinutes(8, 0);
+  private static final int TIME_0900AM = TimeRange.getTimeInMinutes(9, 0);
+
+  private static final int DURATION_30_MINUTES = 30;
+
+  private final FindMeetingQuery query = new FindMeetingQuery();
+
+  @Test
+  public void streamedEventsGiveTheSameSlots() {
+    CalendarGenerator generator = new CalendarGenerator(4, 40, 4, 2);
+    List<Event> events = new ArrayList<>(generator.generate());
+    Collections.sort(events, (a, b) -> TimeRange.ORDER_BY_START.compare(a.getWhen(), b.getWhen()));
+    for (MeetingRequest request : RandomRequests.generate(19, generator.getEmployees(), 200)) {
+      Assert.assertEquals(query.query(events, request), query.query(events.iterator(), request));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void streamedEventsMustBeOrderedByStart() {
+    List<Event> events = Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartDuration(TIME_0900AM, DURATION_30_MINUTES),
+            Arrays.asList(PERSON_A)),
+        new Event("Event 2", TimeRange.fromStartDuration(TIME_0800AM, DURATION_30_MINUTES),
+            Arrays.asList(PERSON_A)));
+
+    query.query(events.iterator(),
+        new MeetingRequest(Arrays.asList(PERSON_A), DURATION_30_MINUTES));
+  }
+}
@@ -0,0 +1,76 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class TimeRangesTest {
+  @Test
+  public void mergeSortsAndJoinsOverlappingRanges() {
+    List<TimeRange> ranges = Arrays.asList(TimeRange.fromStartEnd(300, 400, false),
+        TimeRange.fromStartEnd(100, 200, false), TimeRange.fromStartEnd(150, 250, false),
+        TimeRange.fromStartEnd(120, 130, false));
+
+    List<TimeRange> actual = TimeRanges.merge(ranges);
+    List<TimeRange> expected = Arrays.asList(
+        TimeRange.fromStartEnd(100, 250, false), TimeRange.fromStartEnd(300, 400, false));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void mergeJoinsTouchingRangesAndDropsEmptyOnes() {
+    List<TimeRange> ranges = Arrays.asList(TimeRange.fromStartEnd(100, 200, false),
+        TimeRange.fromStartEnd(200, 300, false), TimeRange.fromStartDuration(500, 0));
+
+    List<TimeRange> actual = TimeRanges.merge(ranges);
+    List<TimeRange> expected = Arrays.asList(TimeRange.fromStartEnd(100, 300, false));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void freeSlotsSkipsShortGaps() {
+    List<TimeRange> busy = Arrays.asList(TimeRange.fromStartEnd(0, 100, false),
+        TimeRange.fromStartEnd(120, 200, false), TimeRange.fromStartEnd(260, 300, false));
+
+    List<TimeRange> actual = TimeRanges.freeSlots(busy, 30);
+    List<TimeRange> expected = Arrays.asList(TimeRange.fromStartEnd(200, 260, false),
+        TimeRange.fromStartEnd(300, TimeRange.END_OF_DAY, true));
+
+    Assert.assertEquals(expected, actual);
+  }
+
+  @Test
+  public void unionJoinsRangesFromBothLists() {
+    List<TimeRange> a = Arrays.asList(
+        TimeRange.fromStartEnd(0, 100, false), TimeRange.fromStartEnd(300, 400, false));
+    List<TimeRange> b = Arrays.asList(TimeRange.fromStartEnd(100, 150, false),
+        TimeRange.fromStartEnd(200, 250, false), TimeRange.fromStartEnd(350, 500, false));
+
+    List<TimeRange> actual = TimeRanges.union(a, b);
+    List<TimeRange> expected = Arrays.asList(TimeRange.fromStartEnd(0, 150, false),
+        TimeRange.fromStartEnd(200, 250, false), TimeRange.fromStartEnd(300, 500, false));
+
+    Assert.assertEquals(expected, actual);
+  }
+}
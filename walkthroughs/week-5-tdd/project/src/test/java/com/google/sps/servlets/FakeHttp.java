@@ -0,0 +1,165 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Just enough of a servlet container to call servlets from tests: a request with headers and a
+ * body, and a response that remembers what was sent. Methods the servlets don't use return
+ * defaults.
+ */
+final class FakeHttp {
+  private FakeHttp() {
+    // Disallow instances.
+  }
+
+  /**
+   * Returns a servlet configuration with the init parameters {@code parameters}.
+   */
+  static ServletConfig config(final Map<String, String> parameters) {
+    return proxy(ServletConfig.class, new InvocationHandler() {
+      @Override
+      public Object invoke(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+          case "getInitParameter":
+            return parameters.get(args[0]);
+          case "getServletName":
+            return "test";
+          default:
+            return defaultValue(method.getReturnType());
+        }
+      }
+    });
+  }
+
+  /**
+   * Returns a request with {@code headers} and the body {@code body}.
+   */
+  static HttpServletRequest request(final Map<String, String> headers, final String body) {
+    return proxy(HttpServletRequest.class, new InvocationHandler() {
+      @Override
+      public Object invoke(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+          case "getHeader":
+            return headers.get(args[0]);
+          case "getReader":
+            return new BufferedReader(new StringReader(body));
+          default:
+            return defaultValue(method.getReturnType());
+        }
+      }
+    });
+  }
+
+  /**
+   * A response remembering its status, headers and body.
+   */
+  static final class Response {
+    private final Map<String, String> headers = new HashMap<>();
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    private final PrintWriter writer = new PrintWriter(body, true);
+    private int status = HttpServletResponse.SC_OK;
+    private String contentType;
+
+    final HttpServletResponse servletResponse =
+        proxy(HttpServletResponse.class, new InvocationHandler() {
+          @Override
+          public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+              case "setStatus":
+                status = (Integer) args[0];
+                return null;
+              case "setHeader":
+                headers.put((String) args[0], (String) args[1]);
+                return null;
+              case "setContentType":
+                contentType = (String) args[0];
+                return null;
+              case "getWriter":
+                return writer;
+              case "getOutputStream":
+                return new ServletOutputStream() {
+                  @Override
+                  public void write(int b) {
+                    body.write(b);
+                  }
+
+                  @Override
+                  public boolean isReady() {
+                    return true;
+                  }
+
+                  @Override
+                  public void setWriteListener(WriteListener listener) {}
+                };
+              default:
+                return defaultValue(method.getReturnType());
+            }
+          }
+        });
+
+    int getStatus() {
+      return status;
+    }
+
+    String getHeader(String name) {
+      return headers.get(name);
+    }
+
+    String getContentType() {
+      return contentType;
+    }
+
+    byte[] getBody() {
+      writer.flush();
+      return body.toByteArray();
+    }
+
+    String getBodyText() {
+      return new String(getBody(), StandardCharsets.UTF_8);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+    return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler);
+  }
+
+  private static Object defaultValue(Class<?> type) {
+    if (type == boolean.class) {
+      return false;
+    } else if (type == int.class) {
+      return 0;
+    } else if (type == long.class) {
+      return 0L;
+    }
+    return null;
+  }
+}
@@ -0,0 +1,149 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.sps.Event;
+import com.google.sps.EventSources;
+import com.google.sps.Events;
+import com.google.sps.TimeRange;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class GetEventsServletTest {
+  private final GetEventsServlet servlet = new GetEventsServlet();
+
+  @Before
+  public void setUp() {
+    EventSources.set(EventSources.fixed(Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartDuration(480, 30), Arrays.asList("Person A")))));
+  }
+
+  @After
+  public void tearDown() {
+    EventSources.set(EventSources.fixed(Arrays.asList(Events.events)));
+  }
+
+  private FakeHttp.Response get(String... headers) throws IOException {
+    Map<String, String> map = new HashMap<>();
+    for (int i = 0; i < headers.length; i += 2) {
+      map.put(headers[i], headers[i + 1]);
+    }
+    FakeHttp.Response response = new FakeHttp.Response();
+    servlet.doGet(FakeHttp.request(map, ""), response.servletResponse);
+    return response;
+  }
+
+  @Test
+  public void plainJsonWithoutAcceptEncoding() throws IOException {
+    FakeHttp.Response response = get();
+
+    Assert.assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+    Assert.assertNull(response.getHeader("Content-Encoding"));
+    Assert.assertTrue(response.getBodyText().startsWith("[{"));
+    Assert.assertTrue(response.getHeader("ETag").matches("\"[0-9a-f]{64}\""));
+  }
+
+  @Test
+  public void gzipWhenAccepted() throws IOException {
+    String json = get().getBodyText();
+
+    for (String acceptEncoding : Arrays.asList("gzip", "deflate, gzip;q=0.5", "x-gzip", "*")) {
+      FakeHttp.Response response = get("Accept-Encoding", acceptEncoding);
+
+      Assert.assertEquals(acceptEncoding, "gzip", response.getHeader("Content-Encoding"));
+      Assert.assertEquals(acceptEncoding, json, gunzip(response.getBody()));
+      Assert.assertTrue(response.getHeader("ETag").endsWith("-gzip\""));
+    }
+  }
+
+  @Test
+  public void noGzipWhenRefused() throws IOException {
+    for (String acceptEncoding :
+        Arrays.asList("deflate", "gzip;q=0", "gzip; Q=0.000", "gzip;q=0, *", "*;q=0", "identity")) {
+      FakeHttp.Response response = get("Accept-Encoding", acceptEncoding);
+
+      Assert.assertNull(acceptEncoding, response.getHeader("Content-Encoding"));
+      Assert.assertTrue(acceptEncoding, response.getBodyText().startsWith("[{"));
+    }
+  }
+
+  @Test
+  public void matchingEtagIsNotModified() throws IOException {
+    String etag = get().getHeader("ETag");
+
+    for (String ifNoneMatch :
+        Arrays.asList(etag, "W/" + etag, "\"other\", " + etag, "\"a,b\",W/" + etag, "*")) {
+      FakeHttp.Response response = get("If-None-Match", ifNoneMatch);
+
+      Assert.assertEquals(ifNoneMatch, HttpServletResponse.SC_NOT_MODIFIED, response.getStatus());
+      Assert.assertEquals(ifNoneMatch, 0, response.getBody().length);
+      Assert.assertEquals(etag, response.getHeader("ETag"));
+    }
+  }
+
+  @Test
+  public void otherEtagsAreModified() throws IOException {
+    String etag = get().getHeader("ETag");
+    String gzipEtag = get("Accept-Encoding", "gzip").getHeader("ETag");
+
+    Assert.assertEquals(HttpServletResponse.SC_OK,
+        get("If-None-Match", "\"other\"").getStatus());
+    // The tag of the gzipped body does not match the plain one.
+    Assert.assertEquals(HttpServletResponse.SC_OK,
+        get("If-None-Match", gzipEtag).getStatus());
+    Assert.assertEquals(HttpServletResponse.SC_NOT_MODIFIED,
+        get("If-None-Match", gzipEtag, "Accept-Encoding", "gzip").getStatus());
+    Assert.assertNotEquals(etag, gzipEtag);
+  }
+
+  @Test
+  public void etagChangesWithTheEvents() throws IOException {
+    String before = get().getHeader("ETag");
+    EventSources.set(EventSources.fixed(Arrays.asList(
+        new Event("Event 2", TimeRange.fromStartDuration(540, 30), Arrays.asList("Person B")))));
+
+    FakeHttp.Response response = get("If-None-Match", before);
+
+    Assert.assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+    Assert.assertNotEquals(before, response.getHeader("ETag"));
+  }
+
+  private static String gunzip(byte[] bytes) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+      byte[] buffer = new byte[4096];
+      for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+        out.write(buffer, 0, read);
+      }
+    }
+    return new String(out.toByteArray(), StandardCharsets.UTF_8);
+  }
+}
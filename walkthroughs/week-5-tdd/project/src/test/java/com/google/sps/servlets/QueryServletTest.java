@@ -0,0 +1,160 @@
+// Copyright 2019 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.sps.servlets;
+
+import com.google.sps.Event;
+import com.google.sps.EventChanges;
+import com.google.sps.EventSource;
+import com.google.sps.EventSources;
+import com.google.sps.Events;
+import com.google.sps.MutableEventSource;
+import com.google.sps.TimeRange;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** */
+@RunWith(JUnit4.class)
+public final class QueryServletTest {
+  private static final String REQUEST =
+      "{\"attendees\":[\"Person A\"],\"optional_attendees\":[\"Person B\"],\"duration\":30}";
+
+  @After
+  public void tearDown() {
+    EventSources.set(EventSources.fixed(Arrays.asList(Events.events)));
+  }
+
+  @Test
+  public void metricsCountTheQueriesServed() throws Exception {
+    // Person A is busy from 8:00 to 8:30 and Person B from 9:00 to 9:30.
+    EventSources.set(EventSources.fixed(Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartDuration(480, 30), Arrays.asList("Person A")),
+        new Event("Event 2", TimeRange.fromStartDuration(540, 30), Arrays.asList("Person B")))));
+    QueryServlet servlet = new QueryServlet();
+    String before = metrics();
+
+    FakeHttp.Response computed = new FakeHttp.Response();
+    servlet.doPost(FakeHttp.request(Collections.<String, String>emptyMap(), REQUEST),
+        computed.servletResponse);
+    FakeHttp.Response cached = new FakeHttp.Response();
+    servlet.doPost(FakeHttp.request(Collections.<String, String>emptyMap(), REQUEST),
+        cached.servletResponse);
+    String after = metrics();
+
+    Assert.assertEquals(computed.getBodyText(), cached.getBodyText());
+    Assert.assertEquals(2, value(after, "query_total_micros_count")
+        - value(before, "query_total_micros_count"));
+    Assert.assertEquals(1, value(after, "query_cache_misses_total")
+        - value(before, "query_cache_misses_total"));
+    Assert.assertEquals(1, value(after, "query_cache_hits_total")
+        - value(before, "query_cache_hits_total"));
+    // Three free slots, twice.
+    Assert.assertEquals(6, value(after, "query_slots_returned_sum")
+        - value(before, "query_slots_returned_sum"));
+    // One merged busy range for Person A, then two with Person B.
+    Assert.assertEquals(3, value(after, "query_busy_ranges_sum")
+        - value(before, "query_busy_ranges_sum"));
+    // The answers come from precomputed busy lists, which never look at events.
+    Assert.assertEquals(value(before, "query_events_scanned_count"),
+        value(after, "query_events_scanned_count"));
+  }
+
+  private static String metrics() throws Exception {
+    FakeHttp.Response response = new FakeHttp.Response();
+    new MetricsServlet().doGet(
+        FakeHttp.request(Collections.<String, String>emptyMap(), ""), response.servletResponse);
+    Assert.assertTrue(response.getContentType().startsWith("text/plain"));
+    return response.getBodyText();
+  }
+
+  /**
+   * Returns the value of the unlabeled metric {@code name} in the text {@code metrics}.
+   */
+  private static long value(String metrics, String name) {
+    for (String line : metrics.split("\n")) {
+      if (line.startsWith(name + " ")) {
+        return Long.parseLong(line.substring(name.length() + 1).trim());
+      }
+    }
+    throw new AssertionError("No metric " + name + " in " + metrics);
+  }
+
+  @Test
+  public void answersAreNotCachedWhenTurnedOff() throws Exception {
+    QueryServlet servlet = new QueryServlet();
+    servlet.init(FakeHttp.config(Collections.singletonMap("cacheAnswers", "false")));
+    String before = metrics();
+
+    for (int i = 0; i < 2; i++) {
+      servlet.doPost(FakeHttp.request(Collections.<String, String>emptyMap(), REQUEST),
+          new FakeHttp.Response().servletResponse);
+    }
+    String after = metrics();
+
+    Assert.assertEquals(2, value(after, "query_cache_misses_total")
+        - value(before, "query_cache_misses_total"));
+    Assert.assertEquals(0, value(after, "query_cache_hits_total")
+        - value(before, "query_cache_hits_total"));
+  }
+
+  @Test
+  public void sourceChangesAreAppliedWithoutRebuilding() throws Exception {
+    final MutableEventSource events = new MutableEventSource(Arrays.asList(
+        new Event("Event 1", TimeRange.fromStartDuration(480, 30), Arrays.asList("Person A"))));
+    final AtomicInteger reads = new AtomicInteger();
+    EventSources.set(new EventSource() {
+      @Override
+      public Collection<Event> getEvents() {
+        reads.incrementAndGet();
+        return events.getEvents();
+      }
+
+      @Override
+      public long getVersion() {
+        return events.getVersion();
+      }
+
+      @Override
+      public EventChanges getChangesSince(long version) {
+        return events.getChangesSince(version);
+      }
+    });
+    QueryServlet servlet = new QueryServlet();
+    String request =
+        "{\"attendees\":[\"Person A\"],\"optional_attendees\":[],\"duration\":30}";
+
+    FakeHttp.Response before = new FakeHttp.Response();
+    servlet.doPost(FakeHttp.request(Collections.<String, String>emptyMap(), request),
+        before.servletResponse);
+    events.add(
+        new Event("Event 2", TimeRange.fromStartDuration(600, 30), Arrays.asList("Person A")));
+    FakeHttp.Response after = new FakeHttp.Response();
+    servlet.doPost(FakeHttp.request(Collections.<String, String>emptyMap(), request),
+        after.servletResponse);
+
+    Assert.assertEquals(1, reads.get());
+    Assert.assertEquals(
+        "[{\"start\":0,\"duration\":480},{\"start\":510,\"duration\":930}]",
+        before.getBodyText().trim());
+    Assert.assertEquals("[{\"start\":0,\"duration\":480},{\"start\":510,\"duration\":90},"
+        + "{\"start\":630,\"duration\":810}]", after.getBodyText().trim());
+  }
+}